@@ -0,0 +1,84 @@
+package com.example.charactercreation.benchmarks;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.charactercreation.config.AuthRateLimitFilter;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * What {@link AuthRateLimitFilter} adds to an allowed login: two bucket lookups, reading and parsing the body, and
+ * the concurrency slot. The limits are set high enough that every request is allowed; {@code enabled=false} is the
+ * baseline of the mock request alone. {@code clients} spreads the
+ * requests over that many IPs and usernames, so the larger value also measures bucket lookups in a big table.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AuthRateLimitFilterBenchmark {
+
+    @Param({ "1", "100000" })
+    public int clients;
+
+    // false measures the mock request plumbing alone, as the baseline to subtract.
+    @Param({ "true", "false" })
+    public boolean enabled;
+
+    private AuthRateLimitFilter filter;
+    private String[] addresses;
+    private byte[][] bodies;
+
+    @Setup
+    public void setUp() {
+        filter = new AuthRateLimitFilter();
+        ReflectionTestUtils.setField(filter, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(filter, "enabled", enabled);
+        ReflectionTestUtils.setField(filter, "loginPerIp", "1000000000/PT1H");
+        ReflectionTestUtils.setField(filter, "loginPerUsername", "1000000000/PT1H");
+        ReflectionTestUtils.setField(filter, "createAccountPerIp", "");
+        ReflectionTestUtils.setField(filter, "createAccountPerUsername", "");
+        ReflectionTestUtils.setField(filter, "maxBuckets", 1_000_000L);
+        ReflectionTestUtils.setField(filter, "maxConcurrent", 1024);
+        ReflectionTestUtils.setField(filter, "shedRetryAfter", Duration.ofSeconds(1));
+        ReflectionTestUtils.invokeMethod(filter, "init");
+        addresses = new String[clients];
+        bodies = new byte[clients][];
+        for (int i = 0; i < clients; i++) {
+            addresses[i] = "10." + (i >> 16) + "." + ((i >> 8) & 0xff) + "." + (i & 0xff);
+            bodies[i] = ("{\"username\":\"benchuser" + i + "\",\"password\":\"pw\"}").getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
+    @Benchmark
+    public MockHttpServletResponse doFilter() throws Exception {
+        int client = clients == 1 ? 0 : (int) Math.floorMod(System.nanoTime(), clients);
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/users/login");
+        request.setServletPath("/users/login");
+        request.setRemoteAddr(addresses[client]);
+        request.setContent(bodies[client]);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+}
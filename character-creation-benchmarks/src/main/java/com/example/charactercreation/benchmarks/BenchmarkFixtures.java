@@ -0,0 +1,80 @@
+package com.example.charactercreation.benchmarks;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.charactercreation.model.Account;
+import com.example.charactercreation.model.Character;
+import com.example.charactercreation.service.CharacterSearchIndex;
+import com.example.charactercreation.service.JwtService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Builds the application objects the benchmarks need without starting a Spring context.
+ */
+final class BenchmarkFixtures {
+
+    static final String SECRET = "MzJieXRlc2VjcmV0a2V5Zm9yand0c2lnbmluZzEyMzQ1Ng==";
+
+    static final String[] NAME_PREFIXES = { "Aldric", "Brom", "Cedric", "Dorian", "Elara", "Fenwick", "Gwen", "Hale" };
+    static final String[] COMMENT_WORDS = { "northern", "southern", "eastern", "western" };
+
+    private BenchmarkFixtures() {
+    }
+
+    static JwtService jwtService(long claimsCacheMaxSize) {
+        JwtService jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "secret", SECRET);
+        ReflectionTestUtils.setField(jwtService, "keyId", "default");
+        ReflectionTestUtils.setField(jwtService, "verificationKeys", "");
+        ReflectionTestUtils.setField(jwtService, "accessTokenTtl", Duration.ofMinutes(10));
+        ReflectionTestUtils.setField(jwtService, "claimsCacheMaxSize", claimsCacheMaxSize);
+        ReflectionTestUtils.invokeMethod(jwtService, "init");
+        return jwtService;
+    }
+
+    /**
+     * A search index over {@code documents} characters named {@code <Prefix><n>} from {@link #NAME_PREFIXES}, with
+     * one of {@link #COMMENT_WORDS} in every comment.
+     */
+    static CharacterSearchIndex characterSearchIndex(int documents) {
+        CharacterSearchIndex searchIndex = new CharacterSearchIndex();
+        ReflectionTestUtils.setField(searchIndex, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.invokeMethod(searchIndex, "open");
+        for (int i = 0; i < documents; i++) {
+            Character character = new Character();
+            character.setId((long) i + 1);
+            character.setName(NAME_PREFIXES[i % NAME_PREFIXES.length] + i);
+            character.setComment("Guards the " + COMMENT_WORDS[i % COMMENT_WORDS.length] + " gate");
+            searchIndex.indexAfterCommit(character);
+        }
+        searchIndex.refresh();
+        return searchIndex;
+    }
+
+    static Account account(int characterCount) {
+        Account account = new Account();
+        account.setId(1L);
+        account.setUsername("benchuser");
+        account.setPasswordHash("hash");
+        List<Character> characters = new ArrayList<>();
+        for (int i = 0; i < characterCount; i++) {
+            Character character = new Character();
+            character.setId((long) i + 1);
+            character.setName("Character" + i);
+            character.setLevel(i);
+            character.setVocation("Mage");
+            character.setCharacterClass("Wizard");
+            character.setComment("A wizard is never late, nor is he early. He arrives precisely when he means to. ".repeat(4));
+            character.setAccount(account);
+            characters.add(character);
+        }
+        account.setCharacters(characters);
+        account.setCharacterCount(characterCount);
+        return account;
+    }
+}
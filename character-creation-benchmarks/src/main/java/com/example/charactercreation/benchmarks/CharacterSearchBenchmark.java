@@ -0,0 +1,73 @@
+package com.example.charactercreation.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.charactercreation.service.CharacterSearchIndex;
+
+/**
+ * One page (21 ids) of {@link CharacterSearchIndex#search} over 100k and 1M characters: an exact word shared by a
+ * quarter of all comments, a prefix matching an eighth of all names, both combined, and a page deep into the results.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+// Longer warmup: the index merges the segments of the initial load in the background for a few seconds.
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+public class CharacterSearchBenchmark {
+
+    private static final int PAGE = 21;
+
+    @Param({ "100000", "1000000" })
+    public int documents;
+
+    private CharacterSearchIndex searchIndex;
+    private long deepCursor;
+
+    @Setup
+    public void setUp() {
+        searchIndex = BenchmarkFixtures.characterSearchIndex(documents);
+        deepCursor = documents / 2;
+    }
+
+    @TearDown
+    public void tearDown() {
+        ReflectionTestUtils.invokeMethod(searchIndex, "close");
+    }
+
+    @Benchmark
+    public List<Long> word() {
+        return searchIndex.search("northern", 0L, PAGE);
+    }
+
+    @Benchmark
+    public List<Long> prefix() {
+        return searchIndex.search("ald*", 0L, PAGE);
+    }
+
+    @Benchmark
+    public List<Long> prefixAndWord() {
+        return searchIndex.search("ald* northern", 0L, PAGE);
+    }
+
+    @Benchmark
+    public List<Long> deepPage() {
+        return searchIndex.search("ald* northern", deepCursor, PAGE);
+    }
+}
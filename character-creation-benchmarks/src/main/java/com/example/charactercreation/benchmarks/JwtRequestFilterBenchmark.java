@@ -0,0 +1,76 @@
+package com.example.charactercreation.benchmarks;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.charactercreation.config.JwtRequestFilter;
+import com.example.charactercreation.service.JwtService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * The full authentication filter path for a request to a protected route, with a stubbed
+ * {@link UserDetailsService} so that no database is involved.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtRequestFilterBenchmark {
+
+    @Param({ "0", "10000" })
+    public long claimsCacheMaxSize;
+
+    private JwtRequestFilter filter;
+    private String authorizationHeader;
+
+    @Setup
+    public void setUp() {
+        JwtService jwtService = BenchmarkFixtures.jwtService(claimsCacheMaxSize);
+        UserDetails userDetails = new User("benchuser", "", new ArrayList<>());
+        UserDetailsService userDetailsService = username -> userDetails;
+
+        filter = new JwtRequestFilter();
+        ReflectionTestUtils.setField(filter, "jwtService", jwtService);
+        ReflectionTestUtils.setField(filter, "userDetailsService", userDetailsService);
+        ReflectionTestUtils.setField(filter, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.invokeMethod(filter, "registerMetrics");
+        authorizationHeader = "Bearer " + jwtService.generateToken("benchuser");
+    }
+
+    @Benchmark
+    public MockHttpServletResponse doFilter() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/characters");
+        request.setServletPath("/characters");
+        request.addHeader("Authorization", authorizationHeader);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        try {
+            filter.doFilter(request, response, new MockFilterChain());
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+        return response;
+    }
+}
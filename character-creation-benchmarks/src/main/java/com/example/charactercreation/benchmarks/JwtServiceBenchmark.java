@@ -0,0 +1,62 @@
+package com.example.charactercreation.benchmarks;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import com.example.charactercreation.service.JwtService;
+
+/**
+ * Token generation and verification. A claims cache size of 0 measures the raw parse and signature check on every
+ * call; the larger size measures the cached path the filter normally takes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtServiceBenchmark {
+
+    @Param({ "0", "10000" })
+    public long claimsCacheMaxSize;
+
+    private JwtService jwtService;
+    private String token;
+    private UserDetails userDetails;
+
+    @Setup
+    public void setUp() {
+        jwtService = BenchmarkFixtures.jwtService(claimsCacheMaxSize);
+        token = jwtService.generateToken("benchuser");
+        userDetails = new User("benchuser", "", new ArrayList<>());
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtService.generateToken("benchuser");
+    }
+
+    @Benchmark
+    public String extractUsername() {
+        return jwtService.extractUsername(token);
+    }
+
+    @Benchmark
+    public Boolean validateToken() {
+        return jwtService.validateToken(token, userDetails);
+    }
+}
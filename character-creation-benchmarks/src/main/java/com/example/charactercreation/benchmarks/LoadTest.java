@@ -0,0 +1,208 @@
+package com.example.charactercreation.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Closed-loop HTTP load test against a running instance, used to compare the default thread-pool mode with the
+ * virtual-threads profile. It signs up {@code accounts} users, then measures two phases at a fixed client
+ * concurrency: {@code POST /characters} until every account holds 20 characters, and {@code GET /accounts} for
+ * {@code duration} seconds. Throughput and latency percentiles of each phase are printed and written as JSON.
+ *
+ * <pre>
+ * java -cp target/benchmarks.jar com.example.charactercreation.benchmarks.LoadTest \
+ *     --url=http://localhost:8080 --accounts=200 --concurrency=256 --duration=30 --out=target/load-default.json
+ * </pre>
+ */
+public class LoadTest {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+    private final String baseUrl;
+
+    LoadTest(String baseUrl) {
+        this.baseUrl = baseUrl;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            String[] keyValue = arg.replaceFirst("^--", "").split("=", 2);
+            options.put(keyValue[0], keyValue.length > 1 ? keyValue[1] : "true");
+        }
+        String url = options.getOrDefault("url", "http://localhost:8080");
+        int accounts = Integer.parseInt(options.getOrDefault("accounts", "200"));
+        int concurrency = Integer.parseInt(options.getOrDefault("concurrency", "256"));
+        int duration = Integer.parseInt(options.getOrDefault("duration", "30"));
+        File out = new File(options.getOrDefault("out", "target/load-result.json"));
+
+        LoadTest loadTest = new LoadTest(url);
+        List<String> tokens = loadTest.signUp(accounts, concurrency);
+
+        Map<String, Object> results = new LinkedHashMap<>();
+        results.put("createCharacter", loadTest.run("POST /characters", concurrency, accounts * 20, 0,
+                i -> loadTest.post("/characters", tokens.get(i % tokens.size()),
+                        "{\"name\":\"Load" + i + "\",\"vocation\":\"Mage\",\"characterClass\":\"Wizard\"}")));
+        results.put("getAccount", loadTest.run("GET /accounts", concurrency, Integer.MAX_VALUE, duration,
+                i -> loadTest.get("/accounts", tokens.get(i % tokens.size()))));
+
+        out.getAbsoluteFile().getParentFile().mkdirs();
+        OBJECT_MAPPER.writerWithDefaultPrettyPrinter().writeValue(out, results);
+        System.out.println("Results written to " + out);
+    }
+
+    private List<String> signUp(int accounts, int concurrency) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(concurrency, 16));
+        try {
+            List<Future<String>> futures = new ArrayList<>();
+            for (int i = 0; i < accounts; i++) {
+                futures.add(executor.submit(() -> {
+                    String body = "{\"username\":\"load-" + UUID.randomUUID() + "\",\"password\":\"password\"}";
+                    HttpResponse<String> response = client.send(request("/users/create-account", null)
+                            .POST(HttpRequest.BodyPublishers.ofString(body)).build(),
+                            HttpResponse.BodyHandlers.ofString());
+                    if (response.statusCode() != 200) {
+                        throw new IllegalStateException("Sign-up failed with HTTP " + response.statusCode()
+                                + (response.statusCode() == 429
+                                        ? "; start the server with --security.rate-limit.enabled=false"
+                                        : "") + ": " + response.body());
+                    }
+                    return OBJECT_MAPPER.readTree(response.body()).get("token").asText();
+                }));
+            }
+            List<String> tokens = new ArrayList<>();
+            for (Future<String> future : futures) {
+                try {
+                    tokens.add(future.get());
+                } catch (ExecutionException e) {
+                    throw e.getCause() instanceof IllegalStateException cause ? cause : e;
+                }
+            }
+            return tokens;
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Runs {@code concurrency} workers that issue requests back to back until {@code maxRequests} were sent or, when
+     * {@code durationSeconds} is positive, that many seconds have passed.
+     */
+    private Map<String, Object> run(String name, int concurrency, int maxRequests, int durationSeconds,
+            IntFunction<Integer> call) throws Exception {
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger errors = new AtomicInteger();
+        long[][] latencies = new long[concurrency][];
+        int[] counts = new int[concurrency];
+        long start = System.nanoTime();
+        long deadline = durationSeconds > 0 ? start + TimeUnit.SECONDS.toNanos(durationSeconds) : Long.MAX_VALUE;
+
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int w = 0; w < concurrency; w++) {
+            int worker = w;
+            futures.add(executor.submit(() -> {
+                long[] samples = new long[1024];
+                int count = 0;
+                int i;
+                while ((i = next.getAndIncrement()) < maxRequests && System.nanoTime() < deadline) {
+                    long begin = System.nanoTime();
+                    int status = call.apply(i);
+                    if (count == samples.length) {
+                        samples = Arrays.copyOf(samples, count * 2);
+                    }
+                    samples[count++] = System.nanoTime() - begin;
+                    if (status >= 400) {
+                        errors.incrementAndGet();
+                    }
+                }
+                latencies[worker] = samples;
+                counts[worker] = count;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+
+        long[] all = new long[Arrays.stream(counts).sum()];
+        int offset = 0;
+        for (int w = 0; w < concurrency; w++) {
+            System.arraycopy(latencies[w], 0, all, offset, counts[w]);
+            offset += counts[w];
+        }
+        Arrays.sort(all);
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("requests", all.length);
+        result.put("errors", errors.get());
+        result.put("throughputPerSecond", all.length / elapsedSeconds);
+        result.put("p50Millis", percentile(all, 0.50));
+        result.put("p99Millis", percentile(all, 0.99));
+        result.put("maxMillis", all.length == 0 ? 0 : all[all.length - 1] / 1e6);
+        System.out.printf("%-18s requests=%d errors=%d throughput=%.1f/s p50=%.2fms p99=%.2fms%n", name,
+                all.length, errors.get(), result.get("throughputPerSecond"), result.get("p50Millis"),
+                result.get("p99Millis"));
+        return result;
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(index, 0)] / 1e6;
+    }
+
+    private int post(String path, String token, String body) {
+        return send(request(path, token).POST(HttpRequest.BodyPublishers.ofString(body)).build());
+    }
+
+    private int get(String path, String token) {
+        return send(request(path, token).GET().build());
+    }
+
+    private int send(HttpRequest request) {
+        try {
+            return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (IOException e) {
+            return 599;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return 599;
+        }
+    }
+
+    private HttpRequest.Builder request(String path, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json");
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder;
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.charactercreation.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.charactercreation.model.Account;
+import com.example.charactercreation.model.Character;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+
+/**
+ * Jackson serialization of the account graph and of a single character, for accounts of 1 to 20 characters.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({ "1", "5", "20" })
+    public int characters;
+
+    private ObjectMapper objectMapper;
+    private Account account;
+    private Character character;
+
+    @Setup
+    public void setUp() {
+        objectMapper = JsonMapper.builder().findAndAddModules().build();
+        account = BenchmarkFixtures.account(characters);
+        character = account.getCharacters().get(0);
+    }
+
+    @Benchmark
+    public byte[] serializeAccount() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(account);
+    }
+
+    @Benchmark
+    public byte[] serializeCharacter() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(character);
+    }
+}
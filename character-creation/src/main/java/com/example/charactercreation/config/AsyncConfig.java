@@ -0,0 +1,56 @@
+package com.example.charactercreation.config;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.task.SimpleAsyncTaskExecutorBuilder;
+import org.springframework.boot.task.ThreadPoolTaskExecutorBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.scheduling.annotation.AsyncAnnotationBeanPostProcessor;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@EnableAsync
+@Configuration
+public class AsyncConfig {
+
+	public static final String PASSWORD_HASHING_EXECUTOR = "passwordHashingExecutor";
+
+	/**
+	 * Declaring our own executor makes Boot back off from its default one, so it is declared here the same way Boot
+	 * would: virtual threads when {@code spring.threads.virtual.enabled} is set on Java 21, a thread pool otherwise.
+	 */
+	@Bean(name = { TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME,
+			AsyncAnnotationBeanPostProcessor.DEFAULT_TASK_EXECUTOR_BEAN_NAME })
+	public AsyncTaskExecutor applicationTaskExecutor(Environment environment,
+			SimpleAsyncTaskExecutorBuilder simpleAsyncTaskExecutorBuilder,
+			ThreadPoolTaskExecutorBuilder threadPoolTaskExecutorBuilder) {
+		if (Threading.VIRTUAL.isActive(environment)) {
+			return simpleAsyncTaskExecutorBuilder.build();
+		}
+		return threadPoolTaskExecutorBuilder.build();
+	}
+
+	/**
+	 * BCrypt is pure CPU work, so it gets its own small pool instead of competing with the servlet threads. Once the
+	 * queue is full new submissions are rejected right away, which the auth endpoints turn into a 503. This pool stays
+	 * on platform threads in virtual-thread mode too: more threads would not make the hashing any faster.
+	 */
+	@Bean(name = PASSWORD_HASHING_EXECUTOR)
+	public ThreadPoolTaskExecutor passwordHashingExecutor(@Value("${security.bcrypt.pool-size:4}") int poolSize,
+			@Value("${security.bcrypt.queue-capacity:100}") int queueCapacity) {
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(poolSize);
+		executor.setMaxPoolSize(poolSize);
+		executor.setQueueCapacity(queueCapacity);
+		executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+		executor.setThreadNamePrefix("bcrypt-");
+		return executor;
+	}
+
+}
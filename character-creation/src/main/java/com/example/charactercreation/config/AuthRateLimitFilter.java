@@ -0,0 +1,310 @@
+package com.example.charactercreation.config;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Protects the password-hashing routes, {@code /users/login} and {@code /users/create-account}, before any BCrypt or
+ * account lookup runs. A request is rejected with 429 and {@code Retry-After} when
+ * <ul>
+ * <li>its client IP or the username in its body has used up its {@link TokenBucketLimiter token bucket} for the
+ * route ({@code security.rate-limit.<route>.per-ip} and {@code .per-username}), or</li>
+ * <li>{@code security.rate-limit.max-concurrent} requests to these routes are already in flight, counted until their
+ * asynchronous response completes.</li>
+ * </ul>
+ * A body that has to be read for its username is limited to {@code security.rate-limit.max-body-size} and refused
+ * with 413 beyond that.
+ * The client IP is {@link HttpServletRequest#getRemoteAddr()}, so behind a proxy {@code server.forward-headers-strategy}
+ * has to be set for it to be the real client.
+ */
+@Component
+public class AuthRateLimitFilter extends OncePerRequestFilter {
+
+    private static final JsonFactory JSON = new JsonFactory();
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${security.rate-limit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${security.rate-limit.login.per-ip:60/PT1M}")
+    private String loginPerIp;
+
+    @Value("${security.rate-limit.login.per-username:10/PT1M}")
+    private String loginPerUsername;
+
+    @Value("${security.rate-limit.create-account.per-ip:10/PT1M}")
+    private String createAccountPerIp;
+
+    @Value("${security.rate-limit.create-account.per-username:5/PT1M}")
+    private String createAccountPerUsername;
+
+    @Value("${security.rate-limit.max-buckets:100000}")
+    private long maxBuckets;
+
+    @Value("${security.rate-limit.max-concurrent:32}")
+    private int maxConcurrent;
+
+    @Value("${security.rate-limit.shed-retry-after:PT1S}")
+    private Duration shedRetryAfter;
+
+    @Value("${security.rate-limit.max-body-size:4KB}")
+    private DataSize maxBodySize;
+
+    private Map<String, Route> routes;
+    private Semaphore inFlight;
+
+    @PostConstruct
+    void init() {
+        routes = Map.of(
+                "/users/login", new Route("login", loginPerIp, loginPerUsername),
+                "/users/create-account", new Route("create-account", createAccountPerIp, createAccountPerUsername));
+        inFlight = new Semaphore(maxConcurrent);
+        Gauge.builder("auth.rate.limit.in.flight", inFlight, semaphore -> maxConcurrent - semaphore.availablePermits())
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || !routes.containsKey(request.getServletPath());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Route route = routes.get(request.getServletPath());
+        if (route.perIp != null && reject(response, route.perIp.tryAcquire(request.getRemoteAddr()), route.ipLimited)) {
+            return;
+        }
+        if (route.perUsername != null) {
+            byte[] body = readBody(request);
+            if (body == null) {
+                route.tooLarge.increment();
+                response.setStatus(HttpStatus.PAYLOAD_TOO_LARGE.value());
+                return;
+            }
+            CachedBodyRequest cached = new CachedBodyRequest(request, body);
+            request = cached;
+            String username = cached.username();
+            if (username != null
+                    && reject(response, route.perUsername.tryAcquire(username), route.usernameLimited)) {
+                return;
+            }
+        }
+        if (!inFlight.tryAcquire()) {
+            reject(response, shedRetryAfter.toNanos(), route.shed);
+            return;
+        }
+        route.allowed.increment();
+        AtomicBoolean released = new AtomicBoolean();
+        Runnable release = () -> {
+            if (released.compareAndSet(false, true)) {
+                inFlight.release();
+            }
+        };
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            // Login and account creation hash asynchronously, so the slot is held until the response is complete.
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new ReleasingListener(release));
+            } else {
+                release.run();
+            }
+        }
+    }
+
+    /**
+     * The request body, or {@code null} if it exceeds {@code security.rate-limit.max-body-size}. A declared length over
+     * the limit is refused unread; otherwise at most one byte more than the limit is buffered.
+     */
+    private byte[] readBody(HttpServletRequest request) throws IOException {
+        long maxBytes = maxBodySize.toBytes();
+        long length = request.getContentLengthLong();
+        if (length > maxBytes) {
+            return null;
+        }
+        // Sized by Content-Length when given, which spares readNBytes' generic chunking.
+        byte[] body = request.getInputStream().readNBytes((int) (length >= 0 ? length : maxBytes + 1));
+        return body.length > maxBytes ? null : body;
+    }
+
+    private static boolean reject(HttpServletResponse response, long waitNanos, Counter counter) {
+        if (waitNanos <= 0) {
+            return false;
+        }
+        counter.increment();
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(TokenBucketLimiter.retryAfterSeconds(waitNanos)));
+        return true;
+    }
+
+    private final class Route {
+
+        private final TokenBucketLimiter perIp;
+        private final TokenBucketLimiter perUsername;
+        private final Counter allowed;
+        private final Counter ipLimited;
+        private final Counter usernameLimited;
+        private final Counter shed;
+        private final Counter tooLarge;
+
+        Route(String name, String perIpSpec, String perUsernameSpec) {
+            perIp = TokenBucketLimiter.parse(perIpSpec, maxBuckets);
+            perUsername = TokenBucketLimiter.parse(perUsernameSpec, maxBuckets);
+            allowed = meterRegistry.counter("auth.rate.limit.requests", "route", name, "result", "allowed");
+            ipLimited = meterRegistry.counter("auth.rate.limit.requests", "route", name, "result", "ip_limited");
+            usernameLimited = meterRegistry.counter("auth.rate.limit.requests", "route", name, "result",
+                    "username_limited");
+            shed = meterRegistry.counter("auth.rate.limit.requests", "route", name, "result", "shed");
+            tooLarge = meterRegistry.counter("auth.rate.limit.requests", "route", name, "result", "too_large");
+            registerBucketGauge(name, "ip", perIp);
+            registerBucketGauge(name, "username", perUsername);
+        }
+
+        private void registerBucketGauge(String name, String key, TokenBucketLimiter limiter) {
+            if (limiter != null) {
+                Gauge.builder("auth.rate.limit.buckets", limiter, TokenBucketLimiter::bucketCount)
+                        .tags("route", name, "key", key)
+                        .register(meterRegistry);
+            }
+        }
+    }
+
+    private record ReleasingListener(Runnable release) implements AsyncListener {
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release.run();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release.run();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release.run();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+
+    /**
+     * Holds the (small) JSON body read up front, so the username can be limited before the controller sees the
+     * request, and replays it to the controller.
+     */
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        // Only the top-level "username" string is looked at; a malformed body is left for the controller to reject.
+        String username() {
+            try (JsonParser parser = JSON.createParser(body)) {
+                if (parser.nextToken() != JsonToken.START_OBJECT) {
+                    return null;
+                }
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = parser.currentName();
+                    JsonToken value = parser.nextToken();
+                    if ("username".equals(field)) {
+                        return value == JsonToken.VALUE_STRING ? parser.getText() : null;
+                    }
+                    parser.skipChildren();
+                }
+                return null;
+            } catch (IOException e) {
+                return null;
+            }
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                // The whole body is in memory, so a non-blocking reader can be handed all of it right away.
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    try {
+                        if (!isFinished()) {
+                            readListener.onDataAvailable();
+                        }
+                        readListener.onAllDataRead();
+                    } catch (IOException e) {
+                        readListener.onError(e);
+                    }
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(getInputStream(),
+                    encoding == null ? StandardCharsets.UTF_8 : Charset.forName(encoding)));
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.charactercreation.config;
+
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.transaction.TransactionManagerCustomizers;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.TransactionManager;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Two connection pools, {@code primary} for writes and {@code replica} for read-only transactions, behind one routing
+ * data source. Without {@code datasource.replica.url} the replica pool opens the primary database, which keeps local
+ * runs working; each pool still shows up separately in the {@code hikaricp.connections.*} metrics.
+ */
+@Configuration
+public class DataSourceConfig {
+
+	@Bean
+	@ConfigurationProperties("spring.datasource.hikari")
+	public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+		HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+		dataSource.setPoolName("primary");
+		return dataSource;
+	}
+
+	@Bean
+	@ConfigurationProperties("datasource.replica.hikari")
+	public HikariDataSource replicaDataSource(DataSourceProperties properties,
+			@Value("${datasource.replica.url:}") String replicaUrl) {
+		HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+		if (!replicaUrl.isEmpty()) {
+			dataSource.setJdbcUrl(replicaUrl);
+		}
+		dataSource.setPoolName("replica");
+		dataSource.setReadOnly(true);
+		return dataSource;
+	}
+
+	@Bean
+	public ReadWriteRoutingDataSource routingDataSource(HikariDataSource primaryDataSource,
+			HikariDataSource replicaDataSource, @Value("${datasource.replica.url:}") String replicaUrl,
+			@Value("${datasource.read-your-writes-window:PT5S}") Duration readYourWritesWindow,
+			MeterRegistry meterRegistry) {
+		return new ReadWriteRoutingDataSource(primaryDataSource, replicaDataSource, !replicaUrl.isEmpty(),
+				readYourWritesWindow, meterRegistry);
+	}
+
+	@Bean
+	@Primary
+	public DataSource dataSource(ReadWriteRoutingDataSource routingDataSource) {
+		return new LazyConnectionDataSourceProxy(routingDataSource);
+	}
+
+	@Bean
+	public JpaTransactionManager transactionManager(ReadWriteRoutingDataSource routingDataSource,
+			ObjectProvider<TransactionManagerCustomizers> transactionManagerCustomizers) {
+		JpaTransactionManager transactionManager = new RoutingJpaTransactionManager(routingDataSource);
+		transactionManagerCustomizers.ifAvailable(customizers -> customizers.customize((TransactionManager) transactionManager));
+		return transactionManager;
+	}
+}
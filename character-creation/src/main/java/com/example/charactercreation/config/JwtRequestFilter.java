@@ -1,19 +1,28 @@
 package com.example.charactercreation.config;
 
 import java.io.IOException;
+import java.util.ArrayList;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import com.example.charactercreation.service.JwtService;
 
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -28,35 +37,88 @@ public class JwtRequestFilter extends OncePerRequestFilter {
     @Autowired
     private JwtService jwtService;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // When enabled, the principal is built from the verified token alone and the account is never looked up.
+    @Value("${security.trust-jwt:false}")
+    private boolean trustJwt;
+
+    private Timer parseTimer;
+    private Timer lookupTimer;
+    private Timer validateTimer;
+
+    @PostConstruct
+    void registerMetrics() {
+        parseTimer = meterRegistry.timer("auth.filter", "phase", "parse");
+        lookupTimer = meterRegistry.timer("auth.filter", "phase", "lookup");
+        validateTimer = meterRegistry.timer("auth.filter", "phase", "validate");
+    }
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain) throws ServletException, IOException {
         final String authorizationHeader = request.getHeader("Authorization");
 
         String username = null;
-        String jwt = null;
+        Claims claims = null;
 
         if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
-            jwt = authorizationHeader.substring(7);
+            String jwt = authorizationHeader.substring(7);
+            Timer.Sample sample = Timer.start(meterRegistry);
             try {
-                username = jwtService.extractUsername(jwt);
-            } catch (IllegalArgumentException e) {
-                System.out.println("Unable to get JWT Token");
+                claims = jwtService.extractAllClaims(jwt);
+                username = claims.getSubject();
             } catch (ExpiredJwtException e) {
-                System.out.println("JWT Token has expired");
+                recordFailure("expired");
+            } catch (JwtException | IllegalArgumentException e) {
+                recordFailure("invalid");
+            } finally {
+                sample.stop(parseTimer);
             }
         }
 
         if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
-
-            if (jwtService.validateToken(jwt, userDetails)) {
-                UsernamePasswordAuthenticationToken usernamePasswordAuthenticationToken = new UsernamePasswordAuthenticationToken(
-                        userDetails, null, userDetails.getAuthorities());
-                usernamePasswordAuthenticationToken
-                        .setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                SecurityContextHolder.getContext().setAuthentication(usernamePasswordAuthenticationToken);
+            UserDetails userDetails = trustJwt
+                    ? new User(username, "", new ArrayList<>())
+                    : lookupUser(username);
+
+            if (userDetails != null) {
+                Timer.Sample sample = Timer.start(meterRegistry);
+                boolean valid = jwtService.validateClaims(claims, userDetails);
+                sample.stop(validateTimer);
+                if (valid) {
+                    UsernamePasswordAuthenticationToken usernamePasswordAuthenticationToken = new UsernamePasswordAuthenticationToken(
+                            userDetails, null, userDetails.getAuthorities());
+                    usernamePasswordAuthenticationToken
+                            .setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                    SecurityContextHolder.getContext().setAuthentication(usernamePasswordAuthenticationToken);
+                } else {
+                    recordFailure("subject_mismatch");
+                }
             }
         }
         chain.doFilter(request, response);
     }
-}
\ No newline at end of file
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        // The /users/** routes are permitAll, so there is no point in parsing a token there.
+        return request.getServletPath().startsWith("/users/");
+    }
+
+    private UserDetails lookupUser(String username) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            return this.userDetailsService.loadUserByUsername(username);
+        } catch (UsernameNotFoundException e) {
+            recordFailure("user_not_found");
+            return null;
+        } finally {
+            sample.stop(lookupTimer);
+        }
+    }
+
+    private void recordFailure(String reason) {
+        meterRegistry.counter("auth.filter.failures", "reason", reason).increment();
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.charactercreation.config;
+
+import java.util.function.Function;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.example.charactercreation.service.JwtService;
+import com.example.charactercreation.service.UserDetailsServiceImpl;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+@Configuration
+public class MetricsConfig {
+
+	// Makes @Timed work on service methods.
+	@Bean
+	public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+		return new TimedAspect(meterRegistry);
+	}
+
+	@Bean
+	public MeterBinder authCacheMetrics(JwtService jwtService, UserDetailsServiceImpl userDetailsService) {
+		return registry -> {
+			bindCacheStats(registry, "jwt-claims", jwtService, JwtService::getClaimsCacheStats);
+			bindCacheStats(registry, "principals", userDetailsService, UserDetailsServiceImpl::getPrincipalCacheStats);
+		};
+	}
+
+	// Meters only hold their state object weakly, so the owning bean is passed rather than a throwaway supplier.
+	private static <T> void bindCacheStats(MeterRegistry registry, String cache, T owner, Function<T, CacheStats> stats) {
+		FunctionCounter.builder("cache.gets", owner, o -> stats.apply(o).hitCount())
+				.tags("cache", cache, "result", "hit")
+				.register(registry);
+		FunctionCounter.builder("cache.gets", owner, o -> stats.apply(o).missCount())
+				.tags("cache", cache, "result", "miss")
+				.register(registry);
+		FunctionCounter.builder("cache.evictions", owner, o -> stats.apply(o).evictionCount())
+				.tags("cache", cache)
+				.register(registry);
+	}
+
+}
@@ -0,0 +1,182 @@
+package com.example.charactercreation.config;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import jakarta.persistence.EntityManager;
+
+import javax.sql.DataSource;
+
+/**
+ * Sends connections of read-only transactions to the replica and everything else to the primary. A user who just
+ * committed a read-write transaction keeps reading from the primary for the read-your-writes window, so replication
+ * lag never hides their own changes from them. Lookups that must never lag, such as credentials, run
+ * {@link #onPrimary}. Lookups made before the user is authenticated go through {@link #stickyFor}.
+ * <p>
+ * Sessions reading from a separate replica bypass the second-level and query caches: a lagging row cached there would
+ * be served to every later reader, including those routed to the primary.
+ * <p>
+ * Transactions run by {@link RoutingJpaTransactionManager} have their route fixed when they begin. The data source
+ * must still sit behind a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}: the transaction
+ * manager asks for a connection before that route is bound, so the physical connection may only be chosen once the
+ * first statement runs.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+	enum Route {
+		PRIMARY, REPLICA
+	}
+
+	private record BoundRoute(Route route, Session session, CacheMode previousCacheMode) {
+	}
+
+	private static final ThreadLocal<Boolean> primaryOnly = new ThreadLocal<>();
+
+	private final Cache<String, Boolean> recentWriters;
+	private final boolean separateReplica;
+	private final Counter primaryRoutes;
+	private final Counter replicaRoutes;
+	private final Counter stickyRoutes;
+
+	public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, boolean separateReplica,
+			Duration readYourWritesWindow, MeterRegistry meterRegistry) {
+		setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+		setDefaultTargetDataSource(primary);
+		this.recentWriters = Caffeine.newBuilder().expireAfterWrite(readYourWritesWindow).build();
+		this.separateReplica = separateReplica;
+		this.primaryRoutes = meterRegistry.counter("datasource.routes", "route", "primary");
+		this.replicaRoutes = meterRegistry.counter("datasource.routes", "route", "replica");
+		this.stickyRoutes = meterRegistry.counter("datasource.routes.sticky");
+	}
+
+	/**
+	 * Runs the action with every connection it opens taken from the primary. Connections already held by an enclosing
+	 * transaction are not switched.
+	 */
+	public static <T> T onPrimary(Supplier<T> action) {
+		Boolean previous = primaryOnly.get();
+		primaryOnly.set(Boolean.TRUE);
+		try {
+			return action.get();
+		} finally {
+			if (previous == null) {
+				primaryOnly.remove();
+			}
+		}
+	}
+
+	/**
+	 * Keeps the user's reads on the primary for the read-your-writes window, for writes committed before the user was
+	 * authenticated, such as creating their account.
+	 */
+	public void markRecentWriter(String username) {
+		recentWriters.put(username, Boolean.TRUE);
+	}
+
+	/**
+	 * Runs the action on the primary only if the given user is within the read-your-writes window. For lookups made
+	 * before the user is authenticated, such as loading the principal of a token issued at sign-up.
+	 */
+	public <T> T stickyFor(String username, Supplier<T> action) {
+		if (recentWriters.getIfPresent(username) == null) {
+			return action.get();
+		}
+		stickyRoutes.increment();
+		return onPrimary(action);
+	}
+
+	@Override
+	protected Object determineCurrentLookupKey() {
+		boolean readOnly = TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+		Route route;
+		if (primaryOnly.get() != null) {
+			route = Route.PRIMARY;
+		} else if (TransactionSynchronizationManager.getResource(this) instanceof BoundRoute bound) {
+			route = bound.route();
+		} else {
+			route = chooseRoute(readOnly);
+		}
+		if (route == Route.REPLICA) {
+			replicaRoutes.increment();
+			return route;
+		}
+		String username = currentUsername();
+		if (!readOnly && username != null && TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					recentWriters.put(username, Boolean.TRUE);
+				}
+			});
+		}
+		primaryRoutes.increment();
+		return route;
+	}
+
+	/**
+	 * Fixes the route of a transaction that is just beginning on the given entity manager. A session reading from a
+	 * separate replica bypasses the caches until {@link #unbindRoute}: {@link CacheMode#GET} is not enough, as
+	 * Hibernate still stores a query result it looked up and missed.
+	 */
+	void bindRoute(boolean readOnly, EntityManager entityManager) {
+		Session session = entityManager.unwrap(Session.class);
+		BoundRoute bound = new BoundRoute(chooseRoute(readOnly), session, session.getCacheMode());
+		if (bound.route() == Route.REPLICA && separateReplica) {
+			session.setCacheMode(CacheMode.IGNORE);
+		}
+		TransactionSynchronizationManager.bindResource(this, bound);
+	}
+
+	Object suspendRoute() {
+		return TransactionSynchronizationManager.unbindResourceIfPossible(this);
+	}
+
+	void resumeRoute(Object route) {
+		if (route != null) {
+			TransactionSynchronizationManager.bindResource(this, route);
+		}
+	}
+
+	// The entity manager may outlive the transaction, e.g. when it is held open for the whole web request.
+	void unbindRoute() {
+		if (TransactionSynchronizationManager.unbindResourceIfPossible(this) instanceof BoundRoute bound) {
+			bound.session().setCacheMode(bound.previousCacheMode());
+		}
+	}
+
+	private Route chooseRoute(boolean readOnly) {
+		if (!readOnly || primaryOnly.get() != null) {
+			return Route.PRIMARY;
+		}
+		String username = currentUsername();
+		if (username != null && recentWriters.getIfPresent(username) != null) {
+			stickyRoutes.increment();
+			return Route.PRIMARY;
+		}
+		return Route.REPLICA;
+	}
+
+	// Anonymous requests share one name, which must not make them all sticky.
+	private static String currentUsername() {
+		Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+		return authentication == null || authentication instanceof AnonymousAuthenticationToken ? null
+				: authentication.getName();
+	}
+}
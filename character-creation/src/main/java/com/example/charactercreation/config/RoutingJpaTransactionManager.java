@@ -0,0 +1,50 @@
+package com.example.charactercreation.config;
+
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Chooses the {@link ReadWriteRoutingDataSource} route when a transaction begins instead of when its first statement
+ * runs. Hibernate decides whether a query fills the caches before it asks for a connection, so a replica transaction
+ * has to be known as one by then.
+ */
+class RoutingJpaTransactionManager extends JpaTransactionManager {
+
+	private record SuspendedRoute(Object resources, Object route) {
+	}
+
+	private final ReadWriteRoutingDataSource routingDataSource;
+
+	RoutingJpaTransactionManager(ReadWriteRoutingDataSource routingDataSource) {
+		this.routingDataSource = routingDataSource;
+	}
+
+	@Override
+	protected void doBegin(Object transaction, TransactionDefinition definition) {
+		super.doBegin(transaction, definition);
+		EntityManagerHolder holder = (EntityManagerHolder) TransactionSynchronizationManager
+				.getResource(obtainEntityManagerFactory());
+		routingDataSource.bindRoute(definition.isReadOnly(), holder.getEntityManager());
+	}
+
+	@Override
+	protected Object doSuspend(Object transaction) {
+		Object route = routingDataSource.suspendRoute();
+		return new SuspendedRoute(super.doSuspend(transaction), route);
+	}
+
+	@Override
+	protected void doResume(Object transaction, Object suspendedResources) {
+		SuspendedRoute suspended = (SuspendedRoute) suspendedResources;
+		super.doResume(transaction, suspended.resources());
+		routingDataSource.resumeRoute(suspended.route());
+	}
+
+	@Override
+	protected void doCleanupAfterCompletion(Object transaction) {
+		routingDataSource.unbindRoute();
+		super.doCleanupAfterCompletion(transaction);
+	}
+}
@@ -1,6 +1,7 @@
 package com.example.charactercreation.config;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -13,18 +14,26 @@ import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
+import jakarta.servlet.DispatcherType;
+
 @Configuration
 public class SecurityConfig {
 
 	@Autowired
 	private JwtRequestFilter jwtRequestFilter;
+
+	@Autowired
+	private AuthRateLimitFilter authRateLimitFilter;
 	
 	@Autowired
 	private UserDetailsService userDetailsService;
 
+	@Value("${security.bcrypt.strength:10}")
+	private int bcryptStrength;
+
 	@Bean
 	public BCryptPasswordEncoder passwordEncoder() {
-		return new BCryptPasswordEncoder();
+		return new BCryptPasswordEncoder(bcryptStrength);
 	}
 
 	@Bean
@@ -44,11 +53,18 @@ public class SecurityConfig {
 	public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
 		http.csrf().disable()
 				.authorizeHttpRequests((authz) -> authz
+						// An async dispatch, e.g. at the end of an event stream, only finishes a request that was
+						// authorized when it started; the stateless security context is gone by then.
+						.dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
 						.requestMatchers("/users/**").permitAll()
+						// Only health is public; metrics reveal cache, pool and auth timings and need a token.
+						.requestMatchers("/actuator/health").permitAll()
 						.anyRequest().authenticated()
 				)
 				.sessionManagement().sessionCreationPolicy(SessionCreationPolicy.STATELESS);
 		http.authenticationProvider(authenticationProvider());
+		// Ahead of everything that authenticates, so rejected requests cost neither a lookup nor a hash.
+		http.addFilterBefore(authRateLimitFilter, UsernamePasswordAuthenticationFilter.class);
 		http.addFilterBefore(jwtRequestFilter, UsernamePasswordAuthenticationFilter.class);
 		return http.build();
 	}
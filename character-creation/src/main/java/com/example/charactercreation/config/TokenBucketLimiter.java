@@ -0,0 +1,96 @@
+package com.example.charactercreation.config;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+
+/**
+ * Token buckets per key, e.g. per client IP, each holding up to {@code capacity} tokens and refilling at
+ * {@code capacity} per {@code refillPeriod}.
+ * <p>
+ * A bucket is a single {@link AtomicLong}: the time at which it will be full again. Taking a token moves that time
+ * one refill interval further, with one compare-and-set and without locks; a request is rejected if that would put it
+ * more than a full bucket ahead of now. The buckets live in a Caffeine cache, whose hash table and read buffers are
+ * striped, so concurrent requests for different keys don't contend. A bucket left alone for {@code refillPeriod} is
+ * full again and is evicted; {@code maxBuckets} bounds the memory an attacker cycling through keys can claim, at the
+ * price of resetting the least recently used buckets.
+ */
+public final class TokenBucketLimiter {
+
+	private final long nanosPerToken;
+	private final long burstNanos;
+	private final Ticker ticker;
+	private final Cache<String, AtomicLong> buckets;
+
+	public TokenBucketLimiter(int capacity, Duration refillPeriod, long maxBuckets) {
+		this(capacity, refillPeriod, maxBuckets, Ticker.systemTicker());
+	}
+
+	TokenBucketLimiter(int capacity, Duration refillPeriod, long maxBuckets, Ticker ticker) {
+		if (capacity <= 0 || refillPeriod.isNegative() || refillPeriod.isZero()) {
+			throw new IllegalArgumentException("Token bucket needs a positive capacity and refill period.");
+		}
+		this.nanosPerToken = refillPeriod.toNanos() / capacity;
+		this.burstNanos = nanosPerToken * capacity;
+		this.ticker = ticker;
+		this.buckets = Caffeine.newBuilder()
+				.maximumSize(maxBuckets)
+				.expireAfterAccess(refillPeriod)
+				.ticker(ticker)
+				// Maintenance runs on the calling thread instead of being handed to the common pool, which would cost
+				// allowed requests a thread wake-up every time a read buffer fills.
+				.executor(Runnable::run)
+				.build();
+	}
+
+	/**
+	 * Parses {@code <capacity>/<ISO-8601 period>}, e.g. {@code 10/PT1M}; a blank spec means no limit, and gives
+	 * {@code null}.
+	 */
+	public static TokenBucketLimiter parse(String spec, long maxBuckets) {
+		if (spec == null || spec.isBlank()) {
+			return null;
+		}
+		String[] parts = spec.trim().split("/", 2);
+		if (parts.length != 2) {
+			throw new IllegalArgumentException("Expected <capacity>/<period>, e.g. 10/PT1M, but got: " + spec);
+		}
+		return new TokenBucketLimiter(Integer.parseInt(parts[0].trim()), Duration.parse(parts[1].trim()), maxBuckets);
+	}
+
+	/**
+	 * Takes a token from the key's bucket. Returns {@code 0} if one was available, otherwise the nanoseconds until
+	 * there is one; a rejected request takes nothing, so hammering an empty bucket doesn't prolong the wait.
+	 */
+	public long tryAcquire(String key) {
+		long now = ticker.read();
+		AtomicLong fullAt = buckets.get(key, k -> new AtomicLong(now));
+		while (true) {
+			long current = fullAt.get();
+			// Compared as differences, since nanoTime values may be negative and wrap.
+			long next = (current - now > 0 ? current : now) + nanosPerToken;
+			long wait = next - now - burstNanos;
+			if (wait > 0) {
+				return wait;
+			}
+			if (fullAt.compareAndSet(current, next)) {
+				return 0;
+			}
+		}
+	}
+
+	/** Live buckets; expired ones are evicted first, as Caffeine only does that as a side effect of other work. */
+	public long bucketCount() {
+		buckets.cleanUp();
+		return buckets.estimatedSize();
+	}
+
+	/** Whole seconds to wait, rounded up, as sent in {@code Retry-After}. */
+	static long retryAfterSeconds(long waitNanos) {
+		return Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+	}
+}
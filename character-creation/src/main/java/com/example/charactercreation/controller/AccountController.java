@@ -1,15 +1,17 @@
 package com.example.charactercreation.controller;
 
-import java.util.Optional;
+import java.util.Set;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
-import com.example.charactercreation.model.Account;
+import com.example.charactercreation.dto.AccountView;
 import com.example.charactercreation.service.AccountService;
 
 @RestController
@@ -20,10 +22,15 @@ public class AccountController {
 	private AccountService accountService;
 
 	@GetMapping
-	public ResponseEntity<Account> getAccount() {
+	public ResponseEntity<AccountView> getAccount(@RequestParam(required = false) Set<String> fields,
+			WebRequest request) {
 		String username = SecurityContextHolder.getContext().getAuthentication().getName();
-		return ResponseEntity.ok(accountService.getByUsername(username));
-
+		String eTag = accountService.getAccountViewETag(username, fields);
+		if (request.checkNotModified(eTag)) {
+			// 304 and the ETag header are already set on the response.
+			return null;
+		}
+		return ResponseEntity.ok().eTag(eTag).body(accountService.getAccountView(username, fields));
 	}
 
 }
@@ -1,12 +1,27 @@
 package com.example.charactercreation.controller;
 
+import com.example.charactercreation.dto.CharacterPage;
 import com.example.charactercreation.dto.CharacterRequest;
 import com.example.charactercreation.dto.CommentRequest;
+import com.example.charactercreation.dto.ExperienceRequest;
+import com.example.charactercreation.dto.NameAvailability;
 import com.example.charactercreation.model.Character;
 import com.example.charactercreation.service.CharacterService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+
+import java.util.List;
 
 @RestController
 @RequestMapping("/characters")
@@ -16,21 +31,109 @@ public class CharacterController {
     private CharacterService characterService;
 
     @PostMapping
-    public Character createCharacter(@RequestBody CharacterRequest characterRequest) {
-        Character character = new Character();
-        character.setName(characterRequest.getName());
-        character.setVocation(characterRequest.getVocation());
-        character.setCharacterClass(characterRequest.getCharacterClass());
-        return characterService.createCharacter(character);
+    public ResponseEntity<Character> createCharacter(@RequestBody CharacterRequest characterRequest) {
+        Character character = characterService.createCharacter(toCharacter(characterRequest));
+        return ResponseEntity.ok().eTag(eTag(character)).body(character);
+    }
+
+    @PostMapping("/batch")
+    public List<Character> createCharacters(@RequestBody List<CharacterRequest> characterRequests) {
+        return characterService.createCharacters(characterRequests.stream().map(this::toCharacter).toList());
+    }
+
+    @GetMapping
+    public CharacterPage listCharacters(@RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String vocation,
+            @RequestParam(required = false) String characterClass,
+            @RequestParam(required = false) Boolean pendingDeletion) {
+        return characterService.listCharacters(after, size, vocation, characterClass, pendingDeletion);
+    }
+
+    @GetMapping("/search")
+    public CharacterPage searchCharacters(@RequestParam String q,
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer size) {
+        return characterService.searchCharacters(q, after, size);
+    }
+
+    /**
+     * Streams the user's character changes as Server-Sent Events. A reconnecting client resumes after the id in its
+     * {@code Last-Event-ID} header, or after {@code after} when it can't set the header.
+     */
+    @GetMapping(path = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamEvents(@RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId,
+            @RequestParam(required = false) Long after) {
+        return characterService.streamEvents(lastEventId != null ? lastEventId : after);
+    }
+
+    /** Whether a new character could take this name; names are unique across all accounts, ignoring case. */
+    @GetMapping("/name-available")
+    public NameAvailability isNameAvailable(@RequestParam String name) {
+        return new NameAvailability(name, characterService.isNameAvailable(name));
     }
 
+    /**
+     * Updates the comment. With an {@code If-Match} header carrying the ETag of an earlier response, the update is
+     * only applied if nobody changed the character since, otherwise 412 is returned.
+     */
     @PutMapping("/{characterId}")
-    public Character editCharacterComment(@PathVariable Long characterId, @RequestBody CommentRequest commentRequest) {
-        return characterService.editCharacterComment(characterId, commentRequest.getComment());
+    public ResponseEntity<Character> editCharacterComment(@PathVariable Long characterId,
+            @Valid @RequestBody CommentRequest commentRequest,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Character character = characterService.editCharacterComment(characterId, commentRequest.getComment(),
+                expectedVersion(ifMatch));
+        return ResponseEntity.ok().eTag(eTag(character)).body(character);
+    }
+
+    /**
+     * Awards levels from gameplay. They are written in batches shortly after, so the response is 202 and carries the
+     * new level, but no ETag: the stored version only changes once they are written.
+     */
+    @PostMapping("/{characterId}/experience")
+    public ResponseEntity<Character> awardExperience(@PathVariable Long characterId,
+            @Valid @RequestBody ExperienceRequest experienceRequest) {
+        return ResponseEntity.accepted().body(characterService.awardLevels(characterId, experienceRequest.getLevels()));
     }
 
     @DeleteMapping("/{characterId}")
     public void markCharacterForDeletion(@PathVariable Long characterId) {
         characterService.markCharacterForDeletion(characterId);
     }
+
+    // 412 is only for a failed If-Match; a request without a precondition that still lost a race gets 409.
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<Void> characterModified(HttpServletRequest request) {
+        return ResponseEntity.status(request.getHeader(HttpHeaders.IF_MATCH) != null
+                ? HttpStatus.PRECONDITION_FAILED : HttpStatus.CONFLICT).build();
+    }
+
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<Void> nameTaken() {
+        return ResponseEntity.status(HttpStatus.CONFLICT).build();
+    }
+
+    private static String eTag(Character character) {
+        return "\"" + character.getVersion() + "\"";
+    }
+
+    // Only a single strong ETag or "*" is understood; anything else can never match, so it fails with 412.
+    private static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        try {
+            return Long.parseLong(ifMatch.trim().replaceAll("^\"|\"$", ""));
+        } catch (NumberFormatException e) {
+            throw new OptimisticLockingFailureException("Unsupported If-Match: " + ifMatch);
+        }
+    }
+
+    private Character toCharacter(CharacterRequest characterRequest) {
+        Character character = new Character();
+        character.setName(characterRequest.getName());
+        character.setVocation(characterRequest.getVocation());
+        character.setCharacterClass(characterRequest.getCharacterClass());
+        return character;
+    }
 }
@@ -0,0 +1,36 @@
+package com.example.charactercreation.controller;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.charactercreation.dto.LeaderboardEntry;
+import com.example.charactercreation.service.CharacterService;
+
+@RestController
+@RequestMapping("/leaderboard")
+public class LeaderboardController {
+
+	@Autowired
+	private CharacterService characterService;
+
+	/** The highest-level characters of all accounts, of one vocation if {@code vocation} is given. */
+	@GetMapping
+	public List<LeaderboardEntry> getLeaderboard(@RequestParam(required = false) String vocation,
+			@RequestParam(required = false) Integer limit) {
+		return characterService.getLeaderboard(vocation, limit);
+	}
+
+	/** The character's rank, among characters of {@code vocation} if given; 404 if it isn't ranked there. */
+	@GetMapping("/characters/{characterId}")
+	public ResponseEntity<LeaderboardEntry> getRank(@PathVariable Long characterId,
+			@RequestParam(required = false) String vocation) {
+		return ResponseEntity.of(characterService.getLeaderboardRank(characterId, vocation));
+	}
+}
@@ -0,0 +1,23 @@
+package com.example.charactercreation.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.charactercreation.dto.CharacterStats;
+import com.example.charactercreation.service.CharacterService;
+
+@RestController
+@RequestMapping("/stats")
+public class StatsController {
+
+	@Autowired
+	private CharacterService characterService;
+
+	/** Character counts of all accounts, kept in memory and reconciled with the table periodically. */
+	@GetMapping("/characters")
+	public CharacterStats getCharacterStats() {
+		return characterService.getStatistics();
+	}
+}
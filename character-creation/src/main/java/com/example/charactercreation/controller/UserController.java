@@ -1,6 +1,13 @@
 package com.example.charactercreation.controller;
 
+import java.util.concurrent.CompletableFuture;
+
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -8,8 +15,11 @@ import org.springframework.web.bind.annotation.RestController;
 
 import com.example.charactercreation.dto.AccountRequest;
 import com.example.charactercreation.dto.JwtResponse;
+import com.example.charactercreation.dto.RefreshRequest;
 import com.example.charactercreation.service.AccountService;
 
+import jakarta.validation.Valid;
+
 @RestController
 @RequestMapping("/users")
 public class UserController {
@@ -18,12 +28,33 @@ public class UserController {
     private AccountService accountService;
 
     @PostMapping("/login")
-    public JwtResponse login(@RequestBody AccountRequest accountRequest) {
-        return accountService.login(accountRequest.getUsername(), accountRequest.getPassword());
+    public CompletableFuture<JwtResponse> login(@RequestBody AccountRequest accountRequest) {
+        return accountService.loginAsync(accountRequest.getUsername(), accountRequest.getPassword());
     }
     
     @PostMapping("/create-account")
-    public JwtResponse createAccount(@RequestBody AccountRequest accountRequest) {
-        return accountService.createAccount(accountRequest.getUsername(), accountRequest.getPassword());
+    public CompletableFuture<JwtResponse> createAccount(@RequestBody AccountRequest accountRequest) {
+        return accountService.createAccountAsync(accountRequest.getUsername(), accountRequest.getPassword());
+    }
+
+    // Unknown, expired and reused tokens get the same answer, so a client cannot tell which one it presented.
+    @PostMapping("/refresh")
+    public ResponseEntity<JwtResponse> refresh(@Valid @RequestBody RefreshRequest refreshRequest) {
+        try {
+            return ResponseEntity.ok(accountService.refresh(refreshRequest.getRefreshToken()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+    }
+
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@Valid @RequestBody RefreshRequest refreshRequest) {
+        accountService.logout(refreshRequest.getRefreshToken());
+        return ResponseEntity.noContent().build();
+    }
+
+    @ExceptionHandler(TaskRejectedException.class)
+    public ResponseEntity<Void> passwordHashingSaturated() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1").build();
     }
 }
@@ -0,0 +1,30 @@
+package com.example.charactercreation.dto;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+public class AccountView {
+    private Long id;
+    private String username;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<CharacterView> characters;
+
+    public AccountView(Long id, String username, List<CharacterView> characters) {
+        this.id = id;
+        this.username = username;
+        this.characters = characters;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public List<CharacterView> getCharacters() {
+        return characters;
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.charactercreation.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+public class CharacterEvent {
+
+    public enum Type {
+        CREATED, COMMENT_EDITED, MARKED_FOR_DELETION, PURGED
+    }
+
+    private final long sequence;
+    private final Type type;
+    private final Long characterId;
+    @JsonIgnore
+    private final Long accountId;
+    // The character as of the change; absent for PURGED.
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private final CharacterView character;
+
+    public CharacterEvent(long sequence, Type type, Long characterId, Long accountId, CharacterView character) {
+        this.sequence = sequence;
+        this.type = type;
+        this.characterId = characterId;
+        this.accountId = accountId;
+        this.character = character;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Long getCharacterId() {
+        return characterId;
+    }
+
+    public Long getAccountId() {
+        return accountId;
+    }
+
+    public CharacterView getCharacter() {
+        return character;
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.charactercreation.dto;
+
+import java.util.List;
+
+import com.example.charactercreation.model.Character;
+
+public class CharacterPage {
+    private List<Character> characters;
+    private Long nextCursor;
+
+    public CharacterPage(List<Character> characters, Long nextCursor) {
+        this.characters = characters;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<Character> getCharacters() {
+        return characters;
+    }
+
+    public void setCharacters(List<Character> characters) {
+        this.characters = characters;
+    }
+
+    public Long getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(Long nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
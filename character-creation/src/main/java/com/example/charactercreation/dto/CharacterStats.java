@@ -0,0 +1,50 @@
+package com.example.charactercreation.dto;
+
+import java.util.Map;
+
+public class CharacterStats {
+    private long total;
+    private long pendingDeletion;
+    private Map<String, Long> byVocation;
+    private Map<String, Long> byCharacterClass;
+
+    public CharacterStats(long total, long pendingDeletion, Map<String, Long> byVocation,
+            Map<String, Long> byCharacterClass) {
+        this.total = total;
+        this.pendingDeletion = pendingDeletion;
+        this.byVocation = byVocation;
+        this.byCharacterClass = byCharacterClass;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public void setTotal(long total) {
+        this.total = total;
+    }
+
+    public long getPendingDeletion() {
+        return pendingDeletion;
+    }
+
+    public void setPendingDeletion(long pendingDeletion) {
+        this.pendingDeletion = pendingDeletion;
+    }
+
+    public Map<String, Long> getByVocation() {
+        return byVocation;
+    }
+
+    public void setByVocation(Map<String, Long> byVocation) {
+        this.byVocation = byVocation;
+    }
+
+    public Map<String, Long> getByCharacterClass() {
+        return byCharacterClass;
+    }
+
+    public void setByCharacterClass(Map<String, Long> byCharacterClass) {
+        this.byCharacterClass = byCharacterClass;
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.charactercreation.dto;
+
+import java.time.LocalDate;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+public class CharacterView {
+    private Long id;
+    private String name;
+    private int level;
+    private String vocation;
+    private String characterClass;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String comment;
+    private LocalDate deletionDate;
+
+    public CharacterView(Long id, String name, int level, String vocation, String characterClass, String comment,
+            LocalDate deletionDate) {
+        this.id = id;
+        this.name = name;
+        this.level = level;
+        this.vocation = vocation;
+        this.characterClass = characterClass;
+        this.comment = comment;
+        this.deletionDate = deletionDate;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getLevel() {
+        return level;
+    }
+
+    public String getVocation() {
+        return vocation;
+    }
+
+    public String getCharacterClass() {
+        return characterClass;
+    }
+
+    public String getComment() {
+        return comment;
+    }
+
+    public LocalDate getDeletionDate() {
+        return deletionDate;
+    }
+}
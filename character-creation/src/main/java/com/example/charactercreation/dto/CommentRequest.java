@@ -1,8 +1,10 @@
 package com.example.charactercreation.dto;
 
-
+import jakarta.validation.constraints.Size;
 
 public class CommentRequest {
+    // Matches the comment column, so an oversized comment is rejected before it reaches the write-behind buffer.
+    @Size(max = 1024)
     private String comment;
 
     public String getComment() {
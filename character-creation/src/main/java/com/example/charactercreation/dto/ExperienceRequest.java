@@ -0,0 +1,19 @@
+package com.example.charactercreation.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Positive;
+
+public class ExperienceRequest {
+    // A single award stays small; CharacterService caps the running total at the largest storable level.
+    @Positive
+    @Max(1000)
+    private int levels;
+
+    public int getLevels() {
+        return levels;
+    }
+
+    public void setLevels(int levels) {
+        this.levels = levels;
+    }
+}
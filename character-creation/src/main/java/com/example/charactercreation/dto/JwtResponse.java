@@ -3,10 +3,12 @@ package com.example.charactercreation.dto;
 public class JwtResponse {
     private String token;
     private long expiresAt;
+    private String refreshToken;
 
-    public JwtResponse(String token, long expiresAt) {
+    public JwtResponse(String token, long expiresAt, String refreshToken) {
         this.token = token;
         this.expiresAt = expiresAt;
+        this.refreshToken = refreshToken;
     }
 
     public String getToken() {
@@ -24,4 +26,12 @@ public class JwtResponse {
     public void setExpiresAt(long expiresAt) {
         this.expiresAt = expiresAt;
     }
+
+    public String getRefreshToken() {
+        return refreshToken;
+    }
+
+    public void setRefreshToken(String refreshToken) {
+        this.refreshToken = refreshToken;
+    }
 }
@@ -0,0 +1,57 @@
+package com.example.charactercreation.dto;
+
+public class LeaderboardEntry {
+    private int rank;
+    private Long characterId;
+    private String name;
+    private int level;
+    private String vocation;
+
+    public LeaderboardEntry(int rank, Long characterId, String name, int level, String vocation) {
+        this.rank = rank;
+        this.characterId = characterId;
+        this.name = name;
+        this.level = level;
+        this.vocation = vocation;
+    }
+
+    public int getRank() {
+        return rank;
+    }
+
+    public void setRank(int rank) {
+        this.rank = rank;
+    }
+
+    public Long getCharacterId() {
+        return characterId;
+    }
+
+    public void setCharacterId(Long characterId) {
+        this.characterId = characterId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public int getLevel() {
+        return level;
+    }
+
+    public void setLevel(int level) {
+        this.level = level;
+    }
+
+    public String getVocation() {
+        return vocation;
+    }
+
+    public void setVocation(String vocation) {
+        this.vocation = vocation;
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.charactercreation.dto;
+
+import jakarta.validation.constraints.NotBlank;
+
+public class RefreshRequest {
+    @NotBlank
+    private String refreshToken;
+
+    public String getRefreshToken() {
+        return refreshToken;
+    }
+
+    public void setRefreshToken(String refreshToken) {
+        this.refreshToken = refreshToken;
+    }
+}
@@ -2,9 +2,15 @@ package com.example.charactercreation.model;
 
 import java.util.List;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
+
 import com.fasterxml.jackson.annotation.JsonBackReference;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
@@ -14,12 +20,16 @@ import jakarta.persistence.Id;
 import jakarta.persistence.OneToMany;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "account")
+@NaturalIdCache(region = "account-by-username")
 public class Account {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    @NaturalId
     @Column(unique = true, nullable = false)
     private String username;
 
@@ -28,8 +38,14 @@ public class Account {
     private String passwordHash;
 
     @OneToMany(mappedBy = "account", cascade = CascadeType.ALL)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "account-characters")
     private List<Character> characters;
 
+    // Only ever changed by the conditional bulk updates in AccountRepository, never by flushing this entity.
+    @Column(nullable = false, updatable = false)
+    @JsonIgnore
+    private int characterCount;
+
     public Account() {
         this.characters = new java.util.ArrayList<>();
     }
@@ -65,4 +81,12 @@ public class Account {
     public void setCharacters(List<Character> characters) {
         this.characters = characters;
     }
+
+    public int getCharacterCount() {
+        return characterCount;
+    }
+
+    public void setCharacterCount(int characterCount) {
+        this.characterCount = characterCount;
+    }
 }
@@ -4,19 +4,39 @@ import jakarta.persistence.*;
 
 
 import java.time.LocalDate;
+import java.util.Locale;
+
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
 
 import com.fasterxml.jackson.annotation.JsonBackReference;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "character")
+@DynamicUpdate
+@Table(indexes = {
+        @Index(name = "idx_character_deletion_date", columnList = "deletion_date"),
+        @Index(name = "idx_character_account_id", columnList = "account_id, id") },
+        uniqueConstraints = @UniqueConstraint(name = "uk_character_name_key", columnNames = "name_key"))
 public class Character {
 
+    // Sequence ids with a pooled optimizer, so Hibernate can batch inserts instead of needing each generated key back.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "character_seq")
+    @SequenceGenerator(name = "character_seq", sequenceName = "character_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
     private String name;
 
+    // Lower-cased name, kept in step with name by setName, so the unique constraint ignores case on every database.
+    @JsonIgnore
+    @Column(nullable = false, updatable = false)
+    private String nameKey;
+
     private int level;
 
     private String vocation;
@@ -28,6 +48,12 @@ public class Character {
 
     private LocalDate deletionDate;
 
+    // Bumped by every update, including the bulk updates in CharacterRepository, so concurrent writers can't silently
+    // overwrite each other.
+    @Version
+    @JsonIgnore
+    private long version;
+
     @ManyToOne
     @JsonBackReference
     @JoinColumn(name = "account_id")
@@ -45,8 +71,17 @@ public class Character {
         return name;
     }
 
+    public String getNameKey() {
+        return nameKey;
+    }
+
     public void setName(String name) {
         this.name = name;
+        this.nameKey = name == null ? null : nameKey(name);
+    }
+
+    public static String nameKey(String name) {
+        return name.toLowerCase(Locale.ROOT);
     }
 
     public int getLevel() {
@@ -96,4 +131,12 @@ public class Character {
     public void setAccount(Account account) {
         this.account = account;
     }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
 }
@@ -1,10 +1,65 @@
 package com.example.charactercreation.repository;
 
 import com.example.charactercreation.model.Account;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDate;
+import java.util.List;
 import java.util.Optional;
 
-public interface AccountRepository extends JpaRepository<Account, Long> {
-    Optional<Account> findByUsername(String username);
+/**
+ * The account view queries are query-cached: their results are dropped as soon as the account or character table
+ * is written, so a repeated poll of an unchanged account never reaches the database.
+ */
+public interface AccountRepository extends JpaRepository<Account, Long>, AccountRepositoryCustom {
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("select a.id as accountId, a.username as username from Account a where a.username = :username")
+    Optional<AccountRow> findAccountRow(@Param("username") String username);
+
+    /**
+     * The account and all its characters as flat rows of a single left join, ordered by character id. An account
+     * without characters yields one row whose character columns are null.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("select a.id as accountId, a.username as username, c.id as characterId, c.name as name, "
+            + "c.level as level, c.vocation as vocation, c.characterClass as characterClass, "
+            + "c.comment as comment, c.deletionDate as deletionDate "
+            + "from Account a left join a.characters c where a.username = :username order by c.id")
+    List<AccountCharacterRow> findAccountCharacterRows(@Param("username") String username);
+
+    // Same as findAccountCharacterRows, but leaves the 1024-char comment column out of the select.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("select a.id as accountId, a.username as username, c.id as characterId, c.name as name, "
+            + "c.level as level, c.vocation as vocation, c.characterClass as characterClass, "
+            + "c.deletionDate as deletionDate "
+            + "from Account a left join a.characters c where a.username = :username order by c.id")
+    List<AccountCharacterRow> findAccountCharacterRowsWithoutComments(@Param("username") String username);
+
+    interface AccountRow {
+        Long getAccountId();
+
+        String getUsername();
+    }
+
+    interface AccountCharacterRow extends AccountRow {
+        Long getCharacterId();
+
+        String getName();
+
+        Integer getLevel();
+
+        String getVocation();
+
+        String getCharacterClass();
+
+        String getComment();
+
+        LocalDate getDeletionDate();
+    }
 }
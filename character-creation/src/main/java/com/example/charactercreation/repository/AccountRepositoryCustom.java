@@ -0,0 +1,22 @@
+package com.example.charactercreation.repository;
+
+import com.example.charactercreation.model.Account;
+
+import java.util.Optional;
+
+public interface AccountRepositoryCustom {
+    /**
+     * Looks the account up by its natural id, so repeated lookups are answered from the second-level cache
+     * instead of running a query.
+     */
+    Optional<Account> findByUsername(String username);
+
+    /**
+     * Adds {@code count} to the account's character counter unless that would exceed {@code limit}. Returns 0 when
+     * the limit would be exceeded. The account row stays locked until the transaction ends, which serializes
+     * concurrent creates.
+     */
+    int reserveCharacterSlots(Long accountId, int count, int limit);
+
+    int releaseCharacterSlots(Long accountId, int count);
+}
@@ -0,0 +1,46 @@
+package com.example.charactercreation.repository;
+
+import com.example.charactercreation.model.Account;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+
+class AccountRepositoryImpl implements AccountRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Transactional so that the unwrapped session outlives this call even when the caller has no transaction.
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Account> findByUsername(String username) {
+        return entityManager.unwrap(Session.class).bySimpleNaturalId(Account.class).loadOptional(username);
+    }
+
+    @Override
+    public int reserveCharacterSlots(Long accountId, int count, int limit) {
+        return CacheAwareUpdates.execute(entityManager, Account.class, List.of(accountId),
+                "update account set character_count = character_count + ? where id = ? and character_count + ? <= ?",
+                statement -> {
+                    statement.setInt(1, count);
+                    statement.setLong(2, accountId);
+                    statement.setInt(3, count);
+                    statement.setInt(4, limit);
+                    return statement.executeUpdate();
+                });
+    }
+
+    @Override
+    public int releaseCharacterSlots(Long accountId, int count) {
+        return CacheAwareUpdates.execute(entityManager, Account.class, List.of(accountId),
+                "update account set character_count = character_count - ? where id = ?", statement -> {
+                    statement.setInt(1, count);
+                    statement.setLong(2, accountId);
+                    return statement.executeUpdate();
+                });
+    }
+}
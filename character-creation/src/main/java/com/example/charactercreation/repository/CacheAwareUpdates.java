@@ -0,0 +1,66 @@
+package com.example.charactercreation.repository;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.cache.spi.access.EntityDataAccess;
+import org.hibernate.cache.spi.access.SoftLock;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.jdbc.ReturningWork;
+import org.hibernate.persister.entity.EntityPersister;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Runs update statements on the transaction's connection while keeping the second-level and query caches coherent the
+ * way Hibernate does for its own entity updates. Bulk HQL would instead evict the entity's whole region, together with
+ * every natural-id mapping and cached query over its table.
+ * <p>
+ * The cache entries of the updated rows are soft-locked until the transaction completes, so no concurrent load can
+ * cache them in the meantime, and afterwards the next read reloads them. Only the entity's own query space is
+ * invalidated. Instances already loaded into the persistence context are not refreshed.
+ */
+final class CacheAwareUpdates {
+
+    @FunctionalInterface
+    interface StatementWork<T> {
+        T execute(PreparedStatement statement) throws SQLException;
+    }
+
+    private CacheAwareUpdates() {
+    }
+
+    static <T> T execute(EntityManager entityManager, Class<?> entityClass, Collection<?> ids, String sql,
+            StatementWork<T> work) {
+        SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+        SessionFactoryImplementor factory = session.getFactory();
+        EntityPersister persister = factory.getMappingMetamodel().getEntityDescriptor(entityClass);
+        List<Object> keys = new ArrayList<>();
+        List<SoftLock> locks = new ArrayList<>();
+        if (persister.canWriteToCache()) {
+            EntityDataAccess cache = persister.getCacheAccessStrategy();
+            for (Object id : ids) {
+                Object key = cache.generateCacheKey(id, persister, factory, session.getTenantIdentifier());
+                keys.add(key);
+                locks.add(cache.lockItem(session, key, null));
+            }
+        }
+        String[] spaces = Arrays.stream(persister.getQuerySpaces()).map(String::valueOf).toArray(String[]::new);
+        factory.getCache().getTimestampsCache().preInvalidate(spaces, session);
+        session.getActionQueue().registerProcess((success, completed) -> {
+            for (int i = 0; i < keys.size(); i++) {
+                persister.getCacheAccessStrategy().unlockItem(completed, keys.get(i), locks.get(i));
+            }
+            factory.getCache().getTimestampsCache().invalidate(spaces, completed);
+        });
+        return session.doReturningWork((ReturningWork<T>) connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                return work.execute(statement);
+            }
+        });
+    }
+}
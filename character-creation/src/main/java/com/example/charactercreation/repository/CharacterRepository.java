@@ -1,11 +1,128 @@
 package com.example.charactercreation.repository;
 
 import com.example.charactercreation.model.Character;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
-public interface CharacterRepository extends JpaRepository<Character, Long> {
-    List<Character> findByDeletionDateBefore(LocalDate date);
+public interface CharacterRepository extends JpaRepository<Character, Long>, CharacterRepositoryCustom {
+
+    /**
+     * Keyset page over the account's characters ordered by id, starting right after {@code afterId}. Null filters
+     * are ignored.
+     */
+    @Query("select c from Character c where c.account.username = :username and c.id > :afterId "
+            + "and (:vocation is null or c.vocation = :vocation) "
+            + "and (:characterClass is null or c.characterClass = :characterClass) "
+            + "and (:pendingDeletion is null "
+            + "or (:pendingDeletion = true and c.deletionDate is not null) "
+            + "or (:pendingDeletion = false and c.deletionDate is null)) "
+            + "order by c.id")
+    List<Character> findPage(@Param("username") String username, @Param("afterId") Long afterId,
+            @Param("vocation") String vocation, @Param("characterClass") String characterClass,
+            @Param("pendingDeletion") Boolean pendingDeletion, Pageable pageable);
+
+    @Query("select c.id as id, c.account.id as accountId, c.nameKey as nameKey, c.vocation as vocation, "
+            + "c.characterClass as characterClass from Character c where c.deletionDate < :date")
+    List<PurgeCandidate> findPurgeCandidates(@Param("date") LocalDate date, Pageable pageable);
+
+    long countByDeletionDateBefore(LocalDate date);
+
+    @Modifying
+    @Query("delete from Character c where c.id in :ids")
+    int deleteByIdIn(@Param("ids") List<Long> ids);
+
+    /**
+     * Aggregates that change whenever any of the account's characters is created, updated or purged: updates bump
+     * the version sum, purges lower the count, and creates raise the highest id past anything seen before.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("select count(c) as count, coalesce(max(c.id), 0) as maxId, coalesce(sum(c.version), 0) as versionSum "
+            + "from Character c where c.account.username = :username")
+    CharacterStamp findCharacterStamp(@Param("username") String username);
+
+    /** Searchable text of every character, streamed in fetch-size chunks for rebuilding the search index. */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select c.id as id, c.name as name, c.comment as comment from Character c")
+    Stream<SearchText> streamSearchText();
+
+    boolean existsByNameKey(String nameKey);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select c.nameKey from Character c")
+    Stream<String> streamNameKeys();
+
+    /** What the leaderboard ranks, for every character, streamed in fetch-size chunks. */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select c.id as id, c.name as name, c.level as level, c.vocation as vocation from Character c")
+    Stream<LeaderboardRow> streamLeaderboardRows();
+
+    @Query("select c.id as id, c.name as name, c.level as level, c.vocation as vocation from Character c "
+            + "where c.id in :ids")
+    List<LeaderboardRow> findLeaderboardRows(@Param("ids") Collection<Long> ids);
+
+    /** Character counts per vocation, class and deletion mark, as one statement so that they share a snapshot. */
+    @Query("select c.vocation as vocation, c.characterClass as characterClass, "
+            + "case when c.deletionDate is null then false else true end as pendingDeletion, count(c) as count "
+            + "from Character c "
+            + "group by c.vocation, c.characterClass, case when c.deletionDate is null then false else true end")
+    List<CharacterCount> countCharacters();
+
+    interface CharacterStamp {
+        long getCount();
+
+        long getMaxId();
+
+        long getVersionSum();
+    }
+
+    interface SearchText {
+        Long getId();
+
+        String getName();
+
+        String getComment();
+    }
+
+    interface LeaderboardRow {
+        Long getId();
+
+        String getName();
+
+        int getLevel();
+
+        String getVocation();
+    }
+
+    interface PurgeCandidate {
+        Long getId();
+
+        Long getAccountId();
+
+        String getNameKey();
+
+        String getVocation();
+
+        String getCharacterClass();
+    }
+
+    interface CharacterCount {
+        String getVocation();
+
+        String getCharacterClass();
+
+        boolean getPendingDeletion();
+
+        long getCount();
+    }
 }
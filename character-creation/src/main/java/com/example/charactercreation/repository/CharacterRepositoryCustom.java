@@ -0,0 +1,29 @@
+package com.example.charactercreation.repository;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * Single-statement character updates, run through {@link CacheAwareUpdates} so that they only invalidate the cache
+ * entries of the characters they touch and the cached queries over the character table.
+ */
+public interface CharacterRepositoryCustom {
+    /**
+     * Sets the comment, only if the character belongs to {@code username} and, unless {@code expectedVersion} is null,
+     * is still at that version. Returns 0 when any of these does not hold.
+     */
+    int updateComment(Long id, String username, String comment, Long expectedVersion);
+
+    /**
+     * Sets the deletion date with the same ownership check as {@link #updateComment}; with {@code onlyIfUnmarked}, only
+     * if the character is not marked for deletion yet.
+     */
+    int updateDeletionDate(Long id, String username, LocalDate deletionDate, boolean onlyIfUnmarked);
+
+    /**
+     * Raises each character's level by its delta with one JDBC batch of {@code level = level + ?} updates, which
+     * also bump the version. Characters that no longer exist are skipped. Only the updated characters and the cached
+     * queries over characters are invalidated.
+     */
+    void addLevels(Map<Long, Long> levelsById);
+}
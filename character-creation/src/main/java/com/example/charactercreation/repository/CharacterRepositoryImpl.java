@@ -0,0 +1,62 @@
+package com.example.charactercreation.repository;
+
+import com.example.charactercreation.model.Character;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+class CharacterRepositoryImpl implements CharacterRepositoryCustom {
+
+    private static final String OWNED_BY = " where id = ? and account_id = (select id from account where username = ?)";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public int updateComment(Long id, String username, String comment, Long expectedVersion) {
+        String sql = "update character set comment = ?, version = version + 1" + OWNED_BY
+                + (expectedVersion == null ? "" : " and version = ?");
+        return update(id, sql, statement -> {
+            statement.setString(1, comment);
+            statement.setLong(2, id);
+            statement.setString(3, username);
+            if (expectedVersion != null) {
+                statement.setLong(4, expectedVersion);
+            }
+            return statement.executeUpdate();
+        });
+    }
+
+    @Override
+    public int updateDeletionDate(Long id, String username, LocalDate deletionDate, boolean onlyIfUnmarked) {
+        String sql = "update character set deletion_date = ?, version = version + 1" + OWNED_BY
+                + (onlyIfUnmarked ? " and deletion_date is null" : "");
+        return update(id, sql, statement -> {
+            statement.setDate(1, Date.valueOf(deletionDate));
+            statement.setLong(2, id);
+            statement.setString(3, username);
+            return statement.executeUpdate();
+        });
+    }
+
+    @Override
+    public void addLevels(Map<Long, Long> levelsById) {
+        CacheAwareUpdates.execute(entityManager, Character.class, levelsById.keySet(),
+                "update character set level = level + ?, version = version + 1 where id = ?", statement -> {
+                    for (Map.Entry<Long, Long> entry : levelsById.entrySet()) {
+                        statement.setLong(1, entry.getValue());
+                        statement.setLong(2, entry.getKey());
+                        statement.addBatch();
+                    }
+                    return statement.executeBatch();
+                });
+    }
+
+    private int update(Long id, String sql, CacheAwareUpdates.StatementWork<Integer> work) {
+        return CacheAwareUpdates.execute(entityManager, Character.class, List.of(id), sql, work);
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.charactercreation.repository;
+
+import com.example.charactercreation.model.RefreshToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Optional;
+
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
+    Optional<RefreshToken> findByTokenHash(String tokenHash);
+
+    /**
+     * Revokes the token if it is still live. Returns 0 when it was already revoked or has expired, so of two
+     * concurrent redemptions of the same token only one succeeds.
+     */
+    @Modifying
+    @Query("update RefreshToken r set r.revoked = true where r.id = :id and r.revoked = false and r.expiresAt > :now")
+    int redeem(@Param("id") Long id, @Param("now") Instant now);
+
+    @Modifying
+    @Query("update RefreshToken r set r.revoked = true where r.username = :username and r.revoked = false")
+    int revokeAllByUsername(@Param("username") String username);
+
+    @Modifying
+    @Query("delete from RefreshToken r where r.expiresAt <= :now")
+    int deleteExpired(@Param("now") Instant now);
+}
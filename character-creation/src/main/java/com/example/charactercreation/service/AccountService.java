@@ -1,14 +1,29 @@
 package com.example.charactercreation.service;
 
+import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Async;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.example.charactercreation.config.AsyncConfig;
+import com.example.charactercreation.config.ReadWriteRoutingDataSource;
+import com.example.charactercreation.dto.AccountView;
+import com.example.charactercreation.dto.CharacterView;
 import com.example.charactercreation.dto.JwtResponse;
 import com.example.charactercreation.model.Account;
 import com.example.charactercreation.repository.AccountRepository;
+import com.example.charactercreation.repository.AccountRepository.AccountCharacterRow;
+import com.example.charactercreation.repository.CharacterRepository;
+import com.example.charactercreation.repository.CharacterRepository.CharacterStamp;
+
+import io.micrometer.core.instrument.MeterRegistry;
 
 @Service
 public class AccountService {
@@ -16,34 +31,102 @@ public class AccountService {
 	@Autowired
 	private AccountRepository accountRepository;
 
+	@Autowired
+	private CharacterRepository characterRepository;
+
 	@Autowired
 	private BCryptPasswordEncoder passwordEncoder;
 
 	@Autowired
 	private JwtService jwtService;
 
+	@Autowired
+	private UserDetailsServiceImpl userDetailsService;
+
+	@Autowired
+	private RefreshTokenService refreshTokenService;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Autowired
+	private CommentWriteBehindBuffer commentBuffer;
+
+	@Autowired
+	private LevelWriteBehindBuffer levelBuffer;
+
+	@Autowired
+	private ReadWriteRoutingDataSource routingDataSource;
+
 	public JwtResponse createAccount(String username, String password) {
-		if (accountRepository.findByUsername(username).isPresent()) {
+		if (findAccount(username).isPresent()) {
 			throw new IllegalArgumentException("Username already exists");
 		}
 		Account account = new Account();
 		account.setUsername(username);
-		account.setPasswordHash(passwordEncoder.encode(password));
+		account.setPasswordHash(encodePassword(password));
 		accountRepository.save(account);
-		String token = jwtService.generateToken(username);
-		long expiresAt = jwtService.getExpirationTimeMillis();
-		return new JwtResponse(token, expiresAt);
+		routingDataSource.markRecentWriter(username);
+		userDetailsService.evictPrincipal(username);
+		return issueTokens(username);
 	}
 
 	public JwtResponse login(String username, String password) {
-		Account account = accountRepository.findByUsername(username)
+		Account account = findAccount(username)
 				.orElseThrow(() -> new IllegalArgumentException("Invalid credentials"));
-		if (!passwordEncoder.matches(password, account.getPasswordHash())) {
+		boolean matches = meterRegistry.timer("auth.password.hash", "operation", "matches")
+				.record(() -> passwordEncoder.matches(password, account.getPasswordHash()));
+		if (!matches) {
+			meterRegistry.counter("auth.login", "result", "invalid_credentials").increment();
 			throw new IllegalArgumentException("Invalid credentials");
 		}
+		if (passwordEncoder.upgradeEncoding(account.getPasswordHash())) {
+			// Stored hash uses an older BCrypt cost, re-hash it now that we have the raw password.
+			account.setPasswordHash(encodePassword(password));
+			accountRepository.save(account);
+			userDetailsService.evictPrincipal(username);
+		}
+		meterRegistry.counter("auth.login", "result", "success").increment();
+		return issueTokens(username);
+	}
+
+	/**
+	 * Trades a refresh token for a new access token and a new refresh token, without touching the password hash.
+	 * The presented refresh token can not be used again.
+	 */
+	@Transactional(noRollbackFor = IllegalArgumentException.class)
+	public JwtResponse refresh(String refreshToken) {
+		return issueTokens(refreshTokenService.redeem(refreshToken));
+	}
+
+	public void logout(String refreshToken) {
+		refreshTokenService.revoke(refreshToken);
+	}
+
+	// expiresAt is read back from the signed token, so it always matches the exp claim clients are checked against.
+	private JwtResponse issueTokens(String username) {
 		String token = jwtService.generateToken(username);
-		long expiresAt = jwtService.getExpirationTimeMillis();
-		return new JwtResponse(token, expiresAt);
+		long expiresAt = jwtService.extractExpiration(token).getTime();
+		return new JwtResponse(token, expiresAt, refreshTokenService.issue(username));
+	}
+
+	@Async(AsyncConfig.PASSWORD_HASHING_EXECUTOR)
+	public CompletableFuture<JwtResponse> createAccountAsync(String username, String password) {
+		return CompletableFuture.completedFuture(createAccount(username, password));
+	}
+
+	@Async(AsyncConfig.PASSWORD_HASHING_EXECUTOR)
+	public CompletableFuture<JwtResponse> loginAsync(String username, String password) {
+		return CompletableFuture.completedFuture(login(username, password));
+	}
+
+	// Credentials are read from the primary: a lagging replica would reject a login right after sign-up.
+	private Optional<Account> findAccount(String username) {
+		return ReadWriteRoutingDataSource.onPrimary(() -> accountRepository.findByUsername(username));
+	}
+
+	private String encodePassword(String password) {
+		return meterRegistry.timer("auth.password.hash", "operation", "encode").record(() -> passwordEncoder.encode(password));
 	}
 
 	public Optional<Account> getAccount(Long id) {
@@ -54,4 +137,60 @@ public class AccountService {
 		return accountRepository.findByUsername(username).orElseThrow();
 	}
 
+	/**
+	 * Strong ETag of {@link #getAccountView} for the same arguments, derived from one aggregate query over the
+	 * account's characters without loading them. Callers compute it before the view, so a write in between can only
+	 * make the ETag older than the body, never newer.
+	 */
+	@Transactional(readOnly = true)
+	public String getAccountViewETag(String username, Set<String> fields) {
+		CharacterStamp stamp = characterRepository.findCharacterStamp(username);
+		boolean includeCharacters = fields == null || fields.contains("characters");
+		boolean includeComments = includeCharacters && (fields == null || fields.contains("comment"));
+		// Edits still in the write-behind buffer don't show in the versions yet, but change the view all the same.
+		long pendingStamp = includeComments ? commentBuffer.pendingStamp(username) : 0;
+		// Likewise unflushed levels; at a given version sum they only grow, so the pair never repeats.
+		long pendingLevels = includeCharacters ? levelBuffer.pendingStamp(username) : 0;
+		return "\"" + stamp.getCount() + "-" + stamp.getMaxId() + "-" + stamp.getVersionSum() + "-"
+				+ (includeCharacters ? 1 : 0) + (includeComments ? 1 : 0)
+				+ (pendingStamp == 0 ? "" : "-" + pendingStamp)
+				+ (pendingLevels == 0 ? "" : "-L" + pendingLevels) + "\"";
+	}
+
+	/**
+	 * Builds the account view with a single projection query. {@code fields} selects the optional parts of the view
+	 * ({@code characters}, {@code comment}); {@code null} means everything.
+	 */
+	@Transactional(readOnly = true)
+	public AccountView getAccountView(String username, Set<String> fields) {
+		boolean includeCharacters = fields == null || fields.contains("characters");
+		boolean includeComments = includeCharacters && (fields == null || fields.contains("comment"));
+		if (!includeCharacters) {
+			return accountRepository.findAccountRow(username)
+					.map(row -> new AccountView(row.getAccountId(), row.getUsername(), null))
+					.orElseThrow();
+		}
+		List<AccountCharacterRow> rows = includeComments ? accountRepository.findAccountCharacterRows(username)
+				: accountRepository.findAccountCharacterRowsWithoutComments(username);
+		if (rows.isEmpty()) {
+			throw new NoSuchElementException("Account not found");
+		}
+		List<CharacterView> characters = rows.stream()
+				.filter(row -> row.getCharacterId() != null)
+				.map(row -> new CharacterView(row.getCharacterId(), row.getName(), level(row, username),
+						row.getVocation(), row.getCharacterClass(), includeComments ? comment(row) : null,
+						row.getDeletionDate()))
+				.toList();
+		return new AccountView(rows.get(0).getAccountId(), rows.get(0).getUsername(), characters);
+	}
+
+	private int level(AccountCharacterRow row, String username) {
+		return (int) Math.min(Integer.MAX_VALUE, row.getLevel() + levelBuffer.get(row.getCharacterId(), username));
+	}
+
+	private String comment(AccountCharacterRow row) {
+		CommentWriteBehindBuffer.PendingComment pending = commentBuffer.get(row.getCharacterId());
+		return pending == null ? row.getComment() : pending.comment();
+	}
+
 }
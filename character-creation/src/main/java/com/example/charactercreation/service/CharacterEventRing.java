@@ -0,0 +1,71 @@
+package com.example.charactercreation.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import com.example.charactercreation.dto.CharacterEvent;
+import com.example.charactercreation.dto.CharacterView;
+
+/**
+ * Bounded multi-producer ring of the most recent character events. Publishing claims the next sequence with one
+ * atomic increment and stores the event in its slot, overwriting the event {@code capacity} sequences older; it never
+ * waits for readers. Readers keep their own cursor and find out from the slot whether their event is still there, not
+ * yet visible, or already overwritten.
+ */
+final class CharacterEventRing {
+
+	private final AtomicReferenceArray<CharacterEvent> slots;
+	private final int mask;
+	// Sequences start at 1, so 0 can stand for "before the first event".
+	private final AtomicLong nextSequence = new AtomicLong(1);
+
+	CharacterEventRing(int capacity) {
+		if (Integer.bitCount(capacity) != 1) {
+			throw new IllegalArgumentException("Ring capacity must be a power of two: " + capacity);
+		}
+		slots = new AtomicReferenceArray<>(capacity);
+		mask = capacity - 1;
+	}
+
+	long publish(CharacterEvent.Type type, Long characterId, Long accountId, CharacterView character) {
+		long sequence = nextSequence.getAndIncrement();
+		slots.set(index(sequence), new CharacterEvent(sequence, type, characterId, accountId, character));
+		return sequence;
+	}
+
+	/** The newest claimed sequence; its event may still be on its way into the ring. */
+	long lastSequence() {
+		return nextSequence.get() - 1;
+	}
+
+	/** The oldest sequence that can still be read, provided it was published. */
+	long oldestSequence() {
+		return Math.max(1, nextSequence.get() - slots.length());
+	}
+
+	/**
+	 * The event with this sequence, or {@code null} while it is claimed but not yet stored. Throws
+	 * {@link OverwrittenException} once the slot was reused by a newer event.
+	 */
+	CharacterEvent get(long sequence) {
+		CharacterEvent event = slots.get(index(sequence));
+		if (event == null || event.getSequence() < sequence) {
+			return null;
+		}
+		if (event.getSequence() > sequence) {
+			throw new OverwrittenException();
+		}
+		return event;
+	}
+
+	private int index(long sequence) {
+		return (int) (sequence & mask);
+	}
+
+	static final class OverwrittenException extends RuntimeException {
+
+		OverwrittenException() {
+			super("Event was overwritten by a newer one", null, false, false);
+		}
+	}
+}
@@ -0,0 +1,292 @@
+package com.example.charactercreation.service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.example.charactercreation.dto.CharacterEvent;
+import com.example.charactercreation.dto.CharacterView;
+import com.example.charactercreation.model.Character;
+import com.example.charactercreation.repository.AccountRepository;
+import com.example.charactercreation.repository.CharacterRepository.PurgeCandidate;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Streams committed character changes to each account's subscribers as Server-Sent Events, so game servers need not
+ * poll {@code GET /accounts}.
+ * <p>
+ * {@link CharacterService} publishes into a {@link CharacterEventRing} of the last {@code characters.events.capacity}
+ * events once its transaction committed; that is an increment and a store, and producers never wait for subscribers.
+ * Every {@code characters.events.dispatch-interval} a dispatcher hands subscribers with new events to a small sender
+ * pool, where each one reads the ring from its own cursor and sends the events of its account. A subscriber that falls
+ * more than the ring behind, or whose connection fails, is sent a {@code reset} event if possible and disconnected; it
+ * reconnects with {@code Last-Event-ID}, or reloads the account once told to reset. A subscriber whose sends keep a
+ * sender busy for longer than {@code characters.events.send-timeout} in one go is completed with an error, so a client
+ * that stops reading cannot hold up the others for longer than a send; a single blocked write only ends with the
+ * servlet container's write timeout.
+ * <p>
+ * The ring is per process: each instance only streams the changes it made itself.
+ */
+@Service
+public class CharacterEventStream {
+
+	private static final String RESET = "reset";
+
+	@Autowired
+	private AccountRepository accountRepository;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Value("${characters.events.capacity:65536}")
+	private int capacity;
+
+	@Value("${characters.events.dispatch-interval:PT0.1S}")
+	private Duration dispatchInterval;
+
+	@Value("${characters.events.heartbeat-interval:PT15S}")
+	private Duration heartbeatInterval;
+
+	@Value("${characters.events.timeout:PT30M}")
+	private Duration timeout;
+
+	@Value("${characters.events.sender-threads:4}")
+	private int senderThreads;
+
+	@Value("${characters.events.send-timeout:PT5S}")
+	private Duration sendTimeout;
+
+	private CharacterEventRing ring;
+	private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+	private long lastHeartbeat;
+
+	private ScheduledExecutorService dispatcher;
+	private ThreadPoolExecutor senders;
+	private Counter published;
+	private Counter sent;
+	private Counter lapped;
+	private Counter failed;
+	private Counter slow;
+
+	@PostConstruct
+	void start() {
+		ring = new CharacterEventRing(capacity);
+		lastHeartbeat = System.nanoTime();
+		published = meterRegistry.counter("characters.events.published");
+		sent = meterRegistry.counter("characters.events.sent");
+		lapped = meterRegistry.counter("characters.events.disconnects", "reason", "lapped");
+		failed = meterRegistry.counter("characters.events.disconnects", "reason", "failed");
+		slow = meterRegistry.counter("characters.events.disconnects", "reason", "slow");
+		meterRegistry.gaugeCollectionSize("characters.events.subscribers", Tags.empty(), subscribers);
+		AtomicInteger threadNumber = new AtomicInteger();
+		// At most one task per subscriber is ever queued, so the queue only bounds a burst of new subscribers.
+		senders = new ThreadPoolExecutor(senderThreads, senderThreads, 0, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(10_000),
+				runnable -> new Thread(runnable, "character-events-" + threadNumber.incrementAndGet()));
+		dispatcher = Executors.newSingleThreadScheduledExecutor(runnable -> new Thread(runnable, "character-events"));
+		dispatcher.scheduleWithFixedDelay(this::dispatch, dispatchInterval.toMillis(), dispatchInterval.toMillis(),
+				TimeUnit.MILLISECONDS);
+	}
+
+	@PreDestroy
+	void stop() throws InterruptedException {
+		dispatcher.shutdownNow();
+		senders.shutdownNow();
+		senders.awaitTermination(5, TimeUnit.SECONDS);
+		subscribers.forEach(subscriber -> subscriber.emitter.complete());
+	}
+
+	public void publishCreatedAfterCommit(List<Character> characters) {
+		List<CharacterView> views = characters.stream().map(CharacterEventStream::view).toList();
+		Long accountId = characters.isEmpty() ? null : characters.get(0).getAccount().getId();
+		TransactionCallbacks.afterCommit(() -> views.forEach(view -> publish(CharacterEvent.Type.CREATED,
+				view.getId(), accountId, view)));
+	}
+
+	public void publishAfterCommit(CharacterEvent.Type type, Character character) {
+		CharacterView view = view(character);
+		Long accountId = character.getAccount().getId();
+		TransactionCallbacks.afterCommit(() -> publish(type, view.getId(), accountId, view));
+	}
+
+	public void publishPurgedAfterCommit(List<PurgeCandidate> candidates) {
+		List<Purged> purged = candidates.stream()
+				.map(candidate -> new Purged(candidate.getId(), candidate.getAccountId()))
+				.toList();
+		TransactionCallbacks.afterCommit(() -> purged.forEach(character -> publish(CharacterEvent.Type.PURGED,
+				character.characterId(), character.accountId(), null)));
+	}
+
+	/**
+	 * Opens a stream of the user's character events after {@code lastEventId}, or from now on when it is
+	 * {@code null}. If events after {@code lastEventId} are no longer in the ring, or it is unknown to this process,
+	 * the stream starts with a {@code reset} event and continues with new events.
+	 */
+	public SseEmitter subscribe(String username, Long lastEventId) {
+		Long accountId = accountRepository.findAccountRow(username).orElseThrow().getAccountId();
+		SseEmitter emitter = new SseEmitter(timeout.toMillis());
+		long last = ring.lastSequence();
+		boolean resumable = lastEventId != null && lastEventId >= ring.oldestSequence() - 1 && lastEventId <= last;
+		Subscriber subscriber = new Subscriber(accountId, emitter, resumable ? lastEventId + 1 : last + 1);
+		emitter.onCompletion(() -> subscribers.remove(subscriber));
+		emitter.onTimeout(() -> subscribers.remove(subscriber));
+		emitter.onError(error -> subscribers.remove(subscriber));
+		subscribers.add(subscriber);
+		if (lastEventId != null && !resumable) {
+			subscriber.reset();
+		} else {
+			// Something to send right away, so the response headers go out before the first event.
+			subscriber.sendQuietly(SseEmitter.event().comment("connected"));
+		}
+		schedule(subscriber);
+		return emitter;
+	}
+
+	private void publish(CharacterEvent.Type type, Long characterId, Long accountId, CharacterView character) {
+		ring.publish(type, characterId, accountId, character);
+		published.increment();
+	}
+
+	// Also picks up subscribers whose last drain stopped at an event that was claimed but not yet stored.
+	private void dispatch() {
+		long last = ring.lastSequence();
+		long now = System.nanoTime();
+		boolean heartbeat = now - lastHeartbeat >= heartbeatInterval.toNanos();
+		if (heartbeat) {
+			lastHeartbeat = now;
+		}
+		for (Subscriber subscriber : subscribers) {
+			if (heartbeat) {
+				subscriber.heartbeatDue = true;
+			}
+			if (heartbeat || subscriber.cursor <= last) {
+				schedule(subscriber);
+			}
+		}
+	}
+
+	private void schedule(Subscriber subscriber) {
+		if (subscriber.draining.compareAndSet(false, true)) {
+			try {
+				senders.execute(subscriber::drain);
+			} catch (RejectedExecutionException e) {
+				subscriber.draining.set(false);
+			}
+		}
+	}
+
+	private static CharacterView view(Character character) {
+		return new CharacterView(character.getId(), character.getName(), character.getLevel(),
+				character.getVocation(), character.getCharacterClass(), character.getComment(),
+				character.getDeletionDate());
+	}
+
+	private record Purged(Long characterId, Long accountId) {
+	}
+
+	private final class Subscriber {
+
+		private final Long accountId;
+		private final SseEmitter emitter;
+		private final AtomicBoolean draining = new AtomicBoolean();
+		// Only advanced by the sender running drain(), which the draining flag makes exclusive.
+		private volatile long cursor;
+		private volatile boolean heartbeatDue;
+
+		Subscriber(Long accountId, SseEmitter emitter, long cursor) {
+			this.accountId = accountId;
+			this.emitter = emitter;
+			this.cursor = cursor;
+		}
+
+		void drain() {
+			long deadline = System.nanoTime() + sendTimeout.toNanos();
+			try {
+				boolean sentAny = false;
+				long last = ring.lastSequence();
+				while (cursor <= last) {
+					CharacterEvent event = ring.get(cursor);
+					if (event == null) {
+						break; // Claimed but not stored yet; the next dispatch picks it up.
+					}
+					if (accountId.equals(event.getAccountId())) {
+						send(SseEmitter.event()
+								.id(Long.toString(event.getSequence()))
+								.name(event.getType().name())
+								.data(event, MediaType.APPLICATION_JSON), deadline);
+						sent.increment();
+						sentAny = true;
+					}
+					cursor++;
+				}
+				if (heartbeatDue && !sentAny) {
+					send(SseEmitter.event().comment("heartbeat"), deadline);
+				}
+				heartbeatDue = false;
+			} catch (CharacterEventRing.OverwrittenException e) {
+				lapped.increment();
+				reset();
+				disconnect();
+			} catch (TimeoutException e) {
+				slow.increment();
+				subscribers.remove(this);
+				emitter.completeWithError(e);
+			} catch (IOException | IllegalStateException e) {
+				// The client is gone or the emitter already completed.
+				failed.increment();
+				disconnect();
+			} finally {
+				draining.set(false);
+			}
+		}
+
+		// A client that stops reading fills its socket buffer, after which every send blocks until the client reads.
+		private void send(SseEmitter.SseEventBuilder event, long deadline) throws IOException, TimeoutException {
+			emitter.send(event);
+			if (System.nanoTime() - deadline > 0) {
+				throw new TimeoutException("Subscriber of account " + accountId + " is too slow");
+			}
+		}
+
+		// Best effort: a client that misses it is sent it again when it reconnects with its Last-Event-ID.
+		void reset() {
+			sendQuietly(SseEmitter.event().name(RESET).data(""));
+		}
+
+		// For sends whose failure the caller doesn't act on; a broken connection completes the emitter anyway.
+		void sendQuietly(SseEmitter.SseEventBuilder event) {
+			try {
+				emitter.send(event);
+			} catch (IOException | IllegalStateException e) {
+				// Left to the next drain, or to the emitter's own completion.
+			}
+		}
+
+		private void disconnect() {
+			subscribers.remove(this);
+			emitter.complete();
+		}
+	}
+}
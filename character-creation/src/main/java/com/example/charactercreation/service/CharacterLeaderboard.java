@@ -0,0 +1,190 @@
+package com.example.charactercreation.service;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.charactercreation.dto.LeaderboardEntry;
+import com.example.charactercreation.model.Character;
+import com.example.charactercreation.repository.CharacterRepository;
+import com.example.charactercreation.repository.CharacterRepository.LeaderboardRow;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Ranks all characters by level, highest first and older characters first among equals, overall and per vocation.
+ * Each ranking is a {@link RankedSkipList}, so the top {@code n} cost a logarithmic search plus {@code n} steps and a
+ * character's rank is a logarithmic search, without touching the database.
+ * <p>
+ * The rankings are loaded before the application starts serving and then follow committed creates, level changes
+ * and purges; levels awarded through {@link LevelWriteBehindBuffer} show once they are flushed. Characters marked for
+ * deletion keep their place until they are purged. Readers share a read-write lock; a writer holds it for a few
+ * skip-list operations.
+ */
+@Service
+public class CharacterLeaderboard implements SmartInitializingSingleton {
+
+	private static final Comparator<Entry> RANKING = Comparator.comparingInt(Entry::level).reversed()
+			.thenComparing(Entry::id);
+
+	@Autowired
+	private CharacterRepository characterRepository;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+	private final Map<Long, Entry> entries = new HashMap<>();
+	private final RankedSkipList<Entry> overall = new RankedSkipList<>(RANKING);
+	private final Map<String, RankedSkipList<Entry>> byVocation = new HashMap<>();
+
+	@PostConstruct
+	void init() {
+		meterRegistry.gauge("characters.leaderboard.entries", Tags.empty(), this, CharacterLeaderboard::size);
+	}
+
+	/** Loads every character with one streamed read of the primary, before any request can run. */
+	@Override
+	public void afterSingletonsInstantiated() {
+		meterRegistry.timer("characters.leaderboard.load").record(() -> new TransactionTemplate(transactionManager)
+				.executeWithoutResult(status -> {
+					try (Stream<LeaderboardRow> rows = characterRepository.streamLeaderboardRows()) {
+						rows.forEach(row -> put(entry(row)));
+					}
+				}));
+	}
+
+	/** Places the characters by their current level once the transaction committed; new ones are added. */
+	public void updateAfterCommit(List<Character> characters) {
+		List<Entry> updated = characters.stream()
+				.map(character -> new Entry(character.getId(), character.getName(), character.getLevel(),
+						character.getVocation()))
+				.toList();
+		TransactionCallbacks.afterCommit(() -> updated.forEach(this::put));
+	}
+
+	/** Places the characters by the levels just written by {@link LevelWriteBehindBuffer}, once committed. */
+	public void updateLevelsAfterCommit(List<LeaderboardRow> rows) {
+		List<Entry> updated = rows.stream().map(CharacterLeaderboard::entry).toList();
+		TransactionCallbacks.afterCommit(() -> updated.forEach(this::put));
+	}
+
+	public void removeAfterCommit(List<Long> characterIds) {
+		TransactionCallbacks.afterCommit(() -> characterIds.forEach(this::remove));
+	}
+
+	/** The best {@code limit} characters overall, or of the vocation when it is not {@code null}. */
+	public List<LeaderboardEntry> top(String vocation, int limit) {
+		lock.readLock().lock();
+		try {
+			RankedSkipList<Entry> board = board(vocation);
+			if (board == null) {
+				return List.of();
+			}
+			List<Entry> top = board.range(0, limit);
+			return Stream.iterate(0, i -> i < top.size(), i -> i + 1)
+					.map(i -> top.get(i).view(i + 1))
+					.toList();
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * The character's place overall, or among characters of the vocation when it is not {@code null}; empty if the
+	 * character is unknown or of another vocation.
+	 */
+	public Optional<LeaderboardEntry> rank(Long characterId, String vocation) {
+		lock.readLock().lock();
+		try {
+			Entry entry = entries.get(characterId);
+			RankedSkipList<Entry> board = board(vocation);
+			if (entry == null || board == null) {
+				return Optional.empty();
+			}
+			int rank = board.rank(entry);
+			return rank == 0 ? Optional.empty() : Optional.of(entry.view(rank));
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	int size() {
+		lock.readLock().lock();
+		try {
+			return overall.size();
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	private void put(Entry entry) {
+		lock.writeLock().lock();
+		try {
+			Entry previous = entries.put(entry.id(), entry);
+			if (previous != null) {
+				unlink(previous);
+			}
+			overall.add(entry);
+			if (entry.vocation() != null) {
+				byVocation.computeIfAbsent(entry.vocation(), vocation -> new RankedSkipList<>(RANKING)).add(entry);
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	private void remove(Long characterId) {
+		lock.writeLock().lock();
+		try {
+			Entry previous = entries.remove(characterId);
+			if (previous != null) {
+				unlink(previous);
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	private void unlink(Entry entry) {
+		overall.remove(entry);
+		if (entry.vocation() != null) {
+			RankedSkipList<Entry> board = byVocation.get(entry.vocation());
+			board.remove(entry);
+			if (board.size() == 0) {
+				byVocation.remove(entry.vocation());
+			}
+		}
+	}
+
+	private static Entry entry(LeaderboardRow row) {
+		return new Entry(row.getId(), row.getName(), row.getLevel(), row.getVocation());
+	}
+
+	private RankedSkipList<Entry> board(String vocation) {
+		return vocation == null ? overall : byVocation.get(vocation);
+	}
+
+	private record Entry(Long id, String name, int level, String vocation) {
+
+		LeaderboardEntry view(int rank) {
+			return new LeaderboardEntry(rank, id, name, level, vocation);
+		}
+	}
+}
@@ -0,0 +1,102 @@
+package com.example.charactercreation.service;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.charactercreation.model.Character;
+import com.example.charactercreation.repository.CharacterRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Answers "is this character name taken?" from a {@link CountingBloomFilter} of all name keys, so that only names the
+ * filter may contain cost a database lookup. The unique constraint on {@code name_key} stays the final arbiter: a
+ * name committed by another request after the filter was consulted still fails the insert.
+ * <p>
+ * The filter is loaded before the application starts serving and then follows committed creates and purges. It is
+ * sized for {@code characters.names.filter.expected-insertions}; beyond that the false-positive rate climbs, which the
+ * {@code characters.names.filter.false.positive.rate} gauges show.
+ */
+@Service
+public class CharacterNameFilter implements SmartInitializingSingleton {
+
+	@Autowired
+	private CharacterRepository characterRepository;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Value("${characters.names.filter.expected-insertions:1000000}")
+	private long expectedInsertions;
+
+	@Value("${characters.names.filter.false-positive-rate:0.01}")
+	private double falsePositiveRate;
+
+	private CountingBloomFilter filter;
+	private Counter negatives;
+	private Counter truePositives;
+	private Counter falsePositives;
+
+	@PostConstruct
+	void init() {
+		filter = new CountingBloomFilter(expectedInsertions, falsePositiveRate);
+		negatives = meterRegistry.counter("characters.names.filter.checks", "result", "negative");
+		truePositives = meterRegistry.counter("characters.names.filter.checks", "result", "true_positive");
+		falsePositives = meterRegistry.counter("characters.names.filter.checks", "result", "false_positive");
+		meterRegistry.gauge("characters.names.filter.false.positive.rate", Tags.of("kind", "expected"), this,
+				nameFilter -> nameFilter.filter.expectedFalsePositiveRate());
+		meterRegistry.gauge("characters.names.filter.false.positive.rate", Tags.of("kind", "observed"), this,
+				CharacterNameFilter::observedFalsePositiveRate);
+	}
+
+	/**
+	 * Loads every name key with one streamed read, before any request can run. Like the search index, it reads the
+	 * primary: a name missing from the filter would skip the lookup and only be caught by the constraint.
+	 */
+	@Override
+	public void afterSingletonsInstantiated() {
+		new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+			try (Stream<String> nameKeys = characterRepository.streamNameKeys()) {
+				nameKeys.forEach(filter::add);
+			}
+		});
+	}
+
+	public boolean isTaken(String name) {
+		String nameKey = Character.nameKey(name);
+		if (!filter.mightContain(nameKey)) {
+			negatives.increment();
+			return false;
+		}
+		boolean taken = characterRepository.existsByNameKey(nameKey);
+		(taken ? truePositives : falsePositives).increment();
+		return taken;
+	}
+
+	public void addAfterCommit(List<String> nameKeys) {
+		TransactionCallbacks.afterCommit(() -> nameKeys.forEach(filter::add));
+	}
+
+	public void removeAfterCommit(List<String> nameKeys) {
+		TransactionCallbacks.afterCommit(() -> nameKeys.forEach(filter::remove));
+	}
+
+	// Among names that turned out to be free, the share the filter could not rule out.
+	private double observedFalsePositiveRate() {
+		double free = falsePositives.count() + negatives.count();
+		return free == 0 ? 0 : falsePositives.count() / free;
+	}
+}
@@ -0,0 +1,267 @@
+package com.example.charactercreation.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.LongField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause.Occur;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.FieldDoc;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortField;
+import org.apache.lucene.search.SortedNumericSortField;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopFieldCollectorManager;
+import org.apache.lucene.store.ByteBuffersDataOutput;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.SingleInstanceLockFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.charactercreation.model.Character;
+import com.example.charactercreation.repository.CharacterRepository;
+import com.example.charactercreation.repository.CharacterRepository.SearchText;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * In-memory Lucene index over character names and comments. It is loaded from the database before the application
+ * starts serving, then kept current by {@link CharacterService}, which hands over every create, comment edit and purge
+ * once its transaction committed. New documents become searchable with the next refresh, every
+ * {@code characters.search.refresh-interval}.
+ * <p>
+ * The index is sorted by character id, so a keyset page of matches ordered by id stops collecting as soon as the page
+ * is full, however many characters match. Name prefixes are indexed as terms of their own, since names are often
+ * unique ("Aldric123") and a prefix query over them would otherwise expand to one term per character.
+ */
+@Service
+public class CharacterSearchIndex implements SmartInitializingSingleton {
+
+	// Upper bound on the terms of one query, so a pasted paragraph can't turn into an arbitrarily large query.
+	private static final int MAX_QUERY_TERMS = 16;
+
+	// Longer name prefixes fall back to a prefix query, which by then only expands to a few terms.
+	private static final int MAX_INDEXED_PREFIX = 12;
+
+	// Comment prefixes aren't indexed: a shorter one would expand to a large share of all comment words.
+	private static final int MIN_COMMENT_PREFIX = 3;
+
+	private static final String ID = "id";
+	private static final String ID_ORDER = "idOrder";
+	private static final String NAME = "name";
+	private static final String NAME_PREFIX = "namePrefix";
+	private static final String COMMENT = "comment";
+	private static final Sort BY_ID = new Sort(new SortedNumericSortField(ID_ORDER, SortField.Type.LONG));
+
+	@Autowired
+	private CharacterRepository characterRepository;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	private final Analyzer analyzer = new StandardAnalyzer();
+	private IndexWriter writer;
+	private SearcherManager searcherManager;
+
+	@PostConstruct
+	void open() throws IOException {
+		// One buffer per file: the default many-buffer files are sliced anew by every search, for every segment.
+		ByteBuffersDirectory directory = new ByteBuffersDirectory(new SingleInstanceLockFactory(),
+				ByteBuffersDataOutput::new, ByteBuffersDirectory.OUTPUT_AS_ONE_BUFFER);
+		// A larger buffer than the default 16 MB leaves the initial load with a few big segments instead of a dozen,
+		// and a search pays a fixed cost per segment.
+		writer = new IndexWriter(directory, new IndexWriterConfig(analyzer)
+				.setIndexSort(BY_ID)
+				.setRAMBufferSizeMB(64));
+		searcherManager = new SearcherManager(writer, null);
+		meterRegistry.gauge("characters.search.documents", writer, indexWriter -> indexWriter.getDocStats().numDocs);
+	}
+
+	@PreDestroy
+	void close() throws IOException {
+		searcherManager.close();
+		writer.close();
+	}
+
+	/**
+	 * Loads every character with one streamed read, before any request or scheduled task can run. The transaction is
+	 * deliberately not read-only: a lagging replica would leave recent writes out of the index for good.
+	 */
+	@Override
+	public void afterSingletonsInstantiated() {
+		Timer.Sample sample = Timer.start(meterRegistry);
+		new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+			try (Stream<SearchText> rows = characterRepository.streamSearchText()) {
+				rows.forEach(row -> write(row.getId(), row.getName(), row.getComment(), false));
+			}
+		});
+		refresh();
+		sample.stop(meterRegistry.timer("characters.search.rebuild"));
+	}
+
+	/** (Re)indexes the character with its current name and comment once the surrounding transaction commits. */
+	public void indexAfterCommit(Character character) {
+		Long id = character.getId();
+		String name = character.getName();
+		String comment = character.getComment();
+		TransactionCallbacks.afterCommit(() -> write(id, name, comment, true));
+	}
+
+	public void removeAfterCommit(List<Long> ids) {
+		Term[] terms = ids.stream().map(id -> new Term(ID, id.toString())).toArray(Term[]::new);
+		TransactionCallbacks.afterCommit(() -> {
+			try {
+				writer.deleteDocuments(terms);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		});
+	}
+
+	/**
+	 * Ids of up to {@code limit} characters after {@code afterId} whose name or comment contains every word of
+	 * {@code text}, in id order. A word ending in {@code *} matches as a prefix; in comments only if it has at least
+	 * three characters, shorter ones have to match a whole comment word.
+	 */
+	public List<Long> search(String text, long afterId, int limit) {
+		Query query = parse(text);
+		if (query == null) {
+			return List.of();
+		}
+		if (afterId > 0) {
+			query = new BooleanQuery.Builder()
+					.add(query, Occur.MUST)
+					.add(LongField.newRangeQuery(ID_ORDER, afterId + 1, Long.MAX_VALUE), Occur.FILTER)
+					.build();
+		}
+		// Total hits are never reported, so counting stops together with collecting: once the page is full.
+		TopFieldCollectorManager collector = new TopFieldCollectorManager(BY_ID, limit, null, limit);
+		try {
+			IndexSearcher searcher = searcherManager.acquire();
+			try {
+				List<Long> ids = new ArrayList<>(limit);
+				for (ScoreDoc scoreDoc : searcher.search(query, collector).scoreDocs) {
+					ids.add((Long) ((FieldDoc) scoreDoc).fields[0]);
+				}
+				return ids;
+			} finally {
+				searcherManager.release(searcher);
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	@Scheduled(fixedDelayString = "${characters.search.refresh-interval:PT1S}")
+	public void refresh() {
+		try {
+			searcherManager.maybeRefreshBlocking();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	// Replacing costs a delete by id per document, which the initial load into the empty index can skip.
+	private void write(Long id, String name, String comment, boolean replace) {
+		Document document = new Document();
+		document.add(new StringField(ID, id.toString(), Field.Store.NO));
+		document.add(new LongField(ID_ORDER, id, Field.Store.NO));
+		document.add(new TextField(NAME, name == null ? "" : name, Field.Store.NO));
+		Set<String> prefixes = new HashSet<>();
+		for (String token : analyze(name == null ? "" : name)) {
+			for (int length = 1; length <= Math.min(token.length(), MAX_INDEXED_PREFIX); length++) {
+				prefixes.add(token.substring(0, length));
+			}
+		}
+		for (String prefix : prefixes) {
+			document.add(new StringField(NAME_PREFIX, prefix, Field.Store.NO));
+		}
+		document.add(new TextField(COMMENT, comment == null ? "" : comment, Field.Store.NO));
+		try {
+			if (replace) {
+				writer.updateDocument(new Term(ID, id.toString()), document);
+			} else {
+				writer.addDocument(document);
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	// Every word has to match the name or the comment; words the analyzer splits further match term by term.
+	private Query parse(String text) {
+		BooleanQuery.Builder builder = new BooleanQuery.Builder();
+		int terms = 0;
+		for (String word : text.trim().split("\\s+")) {
+			boolean prefix = word.endsWith("*");
+			List<String> tokens = analyze(prefix ? word.substring(0, word.length() - 1) : word);
+			for (int i = 0; i < tokens.size() && terms < MAX_QUERY_TERMS; i++, terms++) {
+				boolean prefixToken = prefix && i == tokens.size() - 1;
+				builder.add(new BooleanQuery.Builder()
+						.add(nameQuery(tokens.get(i), prefixToken), Occur.SHOULD)
+						.add(termQuery(COMMENT, tokens.get(i), prefixToken && tokens.get(i).length() >= MIN_COMMENT_PREFIX),
+								Occur.SHOULD)
+						.build(), Occur.MUST);
+			}
+		}
+		return terms == 0 ? null : builder.build();
+	}
+
+	private static Query nameQuery(String token, boolean prefix) {
+		if (prefix && token.length() <= MAX_INDEXED_PREFIX) {
+			return new TermQuery(new Term(NAME_PREFIX, token));
+		}
+		return termQuery(NAME, token, prefix);
+	}
+
+	private static Query termQuery(String field, String token, boolean prefix) {
+		Term term = new Term(field, token);
+		return prefix ? new PrefixQuery(term) : new TermQuery(term);
+	}
+
+	private List<String> analyze(String word) {
+		List<String> tokens = new ArrayList<>();
+		try (TokenStream stream = analyzer.tokenStream(NAME, word)) {
+			CharTermAttribute term = stream.addAttribute(CharTermAttribute.class);
+			stream.reset();
+			while (stream.incrementToken()) {
+				tokens.add(term.toString());
+			}
+			stream.end();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return tokens;
+	}
+}
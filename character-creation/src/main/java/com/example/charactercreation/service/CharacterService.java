@@ -1,62 +1,401 @@
 package com.example.charactercreation.service;
 
+import java.time.Duration;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import com.example.charactercreation.config.ReadWriteRoutingDataSource;
+import com.example.charactercreation.dto.CharacterEvent;
+import com.example.charactercreation.dto.CharacterPage;
+import com.example.charactercreation.dto.CharacterStats;
+import com.example.charactercreation.dto.LeaderboardEntry;
 import com.example.charactercreation.model.Account;
 import com.example.charactercreation.model.Character;
 import com.example.charactercreation.repository.AccountRepository;
 import com.example.charactercreation.repository.CharacterRepository;
+import com.example.charactercreation.repository.CharacterRepository.PurgeCandidate;
+
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 
 @Service
 public class CharacterService {
 
+	private static final int MAX_CHARACTERS_PER_ACCOUNT = 20;
+
 	@Autowired
 	private CharacterRepository characterRepository;
 
 	@Autowired
 	private AccountRepository accountRepository;
 
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Autowired
+	private CommentWriteBehindBuffer commentBuffer;
+
+	@Autowired
+	private CharacterSearchIndex searchIndex;
+
+	@Autowired
+	private CharacterNameFilter nameFilter;
+
+	@Autowired
+	private CharacterEventStream eventStream;
+
+	@Autowired
+	private CharacterLeaderboard leaderboard;
+
+	@Autowired
+	private LevelWriteBehindBuffer levelBuffer;
+
+	@Autowired
+	private CharacterStatistics statistics;
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	@Value("${characters.purge.chunk-size:500}")
+	private int purgeChunkSize;
+
+	@Value("${characters.purge.time-budget:PT5M}")
+	private Duration purgeTimeBudget;
+
+	@Value("${characters.page.default-size:20}")
+	private int defaultPageSize;
+
+	@Value("${characters.page.max-size:100}")
+	private int maxPageSize;
+
+	@Value("${characters.leaderboard.default-limit:10}")
+	private int defaultLeaderboardLimit;
+
+	@Value("${characters.leaderboard.max-limit:100}")
+	private int maxLeaderboardLimit;
+
+	private final AtomicLong purgeBacklog = new AtomicLong();
+
+	@PostConstruct
+	void registerPurgeMetrics() {
+		meterRegistry.gauge("characters.purge.backlog", purgeBacklog);
+	}
+
+	/**
+	 * Creates the character. A taken name, ignoring case, fails with {@link DataIntegrityViolationException}: mostly
+	 * through {@link CharacterNameFilter} before anything is written, and otherwise, when another request committed the
+	 * name in the meantime, through the unique constraint at the flush.
+	 */
+	@Transactional
+	@Timed("characters.service")
 	public Character createCharacter(Character character) {
 		String username = SecurityContextHolder.getContext().getAuthentication().getName();
 		Account account = accountRepository.findByUsername(username).orElseThrow();
-		if (account.getCharacters().size() >= 20) {
-			throw new IllegalStateException("Maximum number of characters reached for this account.");
-		}
+		checkNameAvailable(character.getName());
+		reserveCharacterSlots(account, 1);
 		character.setAccount(account);
-		return characterRepository.save(character);
+		// Flushed here, so a constraint violation surfaces from this method rather than at commit.
+		Character saved = characterRepository.saveAndFlush(character);
+		searchIndex.indexAfterCommit(saved);
+		nameFilter.addAfterCommit(List.of(saved.getNameKey()));
+		eventStream.publishCreatedAfterCommit(List.of(saved));
+		leaderboard.updateAfterCommit(List.of(saved));
+		statistics.createdAfterCommit(List.of(saved));
+		return saved;
 	}
 
-	public Character editCharacterComment(Long characterId, String comment) {
+	@Transactional
+	@Timed("characters.service")
+	public List<Character> createCharacters(List<Character> characters) {
 		String username = SecurityContextHolder.getContext().getAuthentication().getName();
-		Character character = characterRepository.findById(characterId)
-				.orElseThrow(() -> new IllegalArgumentException("Character not found"));
-		if (!character.getAccount().getUsername().equals(username)) {
-			throw new IllegalArgumentException("Character does not belong to the authenticated user.");
+		Account account = accountRepository.findByUsername(username).orElseThrow();
+		Set<String> nameKeys = new HashSet<>();
+		for (Character character : characters) {
+			if (character.getName() != null && !nameKeys.add(Character.nameKey(character.getName()))) {
+				throw new DataIntegrityViolationException("Character name " + character.getName() + " is used twice.");
+			}
+			checkNameAvailable(character.getName());
 		}
-		character.setComment(comment);
-		return characterRepository.save(character);
+		reserveCharacterSlots(account, characters.size());
+		for (Character character : characters) {
+			character.setAccount(account);
+		}
+		List<Character> saved = characterRepository.saveAll(characters);
+		characterRepository.flush();
+		saved.forEach(searchIndex::indexAfterCommit);
+		nameFilter.addAfterCommit(saved.stream().map(Character::getNameKey).toList());
+		eventStream.publishCreatedAfterCommit(saved);
+		leaderboard.updateAfterCommit(saved);
+		statistics.createdAfterCommit(saved);
+		return saved;
+	}
+
+	/** Whether no character, of any account, has this name in any letter case. */
+	@Transactional(readOnly = true)
+	@Timed("characters.service")
+	public boolean isNameAvailable(String name) {
+		return !nameFilter.isTaken(name);
 	}
 
+	/** The highest-level characters of all accounts, of one vocation if it is given; served from memory. */
+	@Timed("characters.service")
+	public List<LeaderboardEntry> getLeaderboard(String vocation, Integer limit) {
+		return leaderboard.top(vocation,
+				limit == null ? defaultLeaderboardLimit : Math.max(1, Math.min(limit, maxLeaderboardLimit)));
+	}
+
+	@Timed("characters.service")
+	public Optional<LeaderboardEntry> getLeaderboardRank(Long characterId, String vocation) {
+		return leaderboard.rank(characterId, vocation);
+	}
+
+	/** Character counts of all accounts, from {@link CharacterStatistics}. */
+	@Timed("characters.service")
+	public CharacterStats getStatistics() {
+		return statistics.snapshot();
+	}
+
+	/**
+	 * Lists the authenticated user's characters one page at a time. {@code after} is the {@code nextCursor} of the
+	 * previous page, so each page costs the same no matter how deep the client has scrolled.
+	 */
+	@Transactional(readOnly = true)
+	@Timed("characters.service")
+	public CharacterPage listCharacters(Long after, Integer size, String vocation, String characterClass,
+			Boolean pendingDeletion) {
+		String username = SecurityContextHolder.getContext().getAuthentication().getName();
+		int pageSize = size == null ? defaultPageSize : Math.max(1, Math.min(size, maxPageSize));
+		// One extra row tells us whether there is a next page without a count query.
+		List<Character> characters = characterRepository.findPage(username, after == null ? 0L : after, vocation,
+				characterClass, pendingDeletion, PageRequest.of(0, pageSize + 1));
+		characters.forEach(this::applyPendingWrites);
+		if (characters.size() <= pageSize) {
+			return new CharacterPage(characters, null);
+		}
+		List<Character> page = characters.subList(0, pageSize);
+		return new CharacterPage(page, page.get(pageSize - 1).getId());
+	}
+
+	/**
+	 * Finds characters of all accounts whose name or comment contains every word of {@code query}; a word ending in
+	 * {@code *} matches as a prefix. Pages are ordered by id, with {@code after} being the previous page's
+	 * {@code nextCursor}.
+	 */
+	@Transactional(readOnly = true)
+	@Timed("characters.service")
+	public CharacterPage searchCharacters(String query, Long after, Integer size) {
+		int pageSize = size == null ? defaultPageSize : Math.max(1, Math.min(size, maxPageSize));
+		List<Long> ids = searchIndex.search(query, after == null ? 0L : after, pageSize + 1);
+		// Loaded through the second-level cache; characters purged since the last index refresh are simply missing.
+		List<Character> characters = characterRepository.findAllById(ids).stream()
+				.sorted(Comparator.comparing(Character::getId))
+				.collect(Collectors.toCollection(ArrayList::new));
+		characters.forEach(this::applyPendingWrites);
+		if (ids.size() <= pageSize) {
+			return new CharacterPage(characters, null);
+		}
+		Long nextCursor = ids.get(pageSize - 1);
+		characters.removeIf(character -> character.getId() > nextCursor);
+		return new CharacterPage(characters, nextCursor);
+	}
+
+	/**
+	 * Updates the comment with a single ownership-checked statement and returns the updated character. When
+	 * {@code expectedVersion} is given the update only applies if the character is still at that version.
+	 * <p>
+	 * With write-behind enabled, unconditional edits are only checked for ownership here and handed to
+	 * {@link CommentWriteBehindBuffer} once the transaction commits; the returned character carries the new comment
+	 * but its stored version. Conditional edits, and edits that find the buffer full, stay synchronous. They fail while
+	 * an earlier edit of the character is still pending, since the stored version no longer describes it.
+	 */
+	@Transactional
+	@Timed("characters.service")
+	public Character editCharacterComment(Long characterId, String comment, Long expectedVersion) {
+		String username = SecurityContextHolder.getContext().getAuthentication().getName();
+		if (commentBuffer.isEnabled()) {
+			if (expectedVersion == null && commentBuffer.hasRoom(characterId)) {
+				Character character = findOwnedCharacter(characterId);
+				entityManager.detach(character);
+				character.setComment(comment);
+				commentBuffer.putAfterCommit(characterId, username, comment);
+				searchIndex.indexAfterCommit(character);
+				eventStream.publishAfterCommit(CharacterEvent.Type.COMMENT_EDITED, character);
+				return character;
+			}
+			if (commentBuffer.get(characterId) != null) {
+				findOwnedCharacter(characterId);
+				throw new OptimisticLockingFailureException("Character " + characterId + " has a pending edit.");
+			}
+		}
+		checkUpdated(characterId, username,
+				characterRepository.updateComment(characterId, username, comment, expectedVersion));
+		Character character = characterRepository.findById(characterId).orElseThrow();
+		searchIndex.indexAfterCommit(character);
+		eventStream.publishAfterCommit(CharacterEvent.Type.COMMENT_EDITED, character);
+		return character;
+	}
+
+	/**
+	 * Awards levels to one of the authenticated user's characters. They are buffered in
+	 * {@link LevelWriteBehindBuffer} and written within {@code characters.levels.flush-interval}; the returned
+	 * character and later reads already include them. Levels beyond the largest storable level are not awarded.
+	 */
+	@Transactional(readOnly = true)
+	@Timed("characters.service")
+	public Character awardLevels(Long characterId, int levels) {
+		if (levels <= 0) {
+			throw new IllegalArgumentException("Levels to award must be positive.");
+		}
+		// From the primary: the cap must hold against the stored level, not a lagging replica's copy of it.
+		Character character = ReadWriteRoutingDataSource.onPrimary(() -> findOwnedCharacter(characterId));
+		String username = character.getAccount().getUsername();
+		long headroom = Integer.MAX_VALUE - (long) character.getLevel() - levelBuffer.get(characterId, username);
+		if (headroom > 0) {
+			levelBuffer.add(characterId, username, (int) Math.min(levels, headroom));
+		}
+		applyPendingWrites(character);
+		return character;
+	}
+
+	/** Opens the authenticated user's stream of character events, see {@link CharacterEventStream#subscribe}. */
+	public SseEmitter streamEvents(Long lastEventId) {
+		String username = SecurityContextHolder.getContext().getAuthentication().getName();
+		return eventStream.subscribe(username, lastEventId);
+	}
+
+	/**
+	 * Marks the character for deletion with a single ownership-checked statement; marking it again moves the date with a
+	 * second one. The character is only loaded afterwards, for its event.
+	 */
+	@Transactional
+	@Timed("characters.service")
 	public void markCharacterForDeletion(Long characterId) {
+		String username = SecurityContextHolder.getContext().getAuthentication().getName();
+		LocalDate deletionDate = LocalDate.now().plusDays(30);
+		if (characterRepository.updateDeletionDate(characterId, username, deletionDate, true) == 1) {
+			statistics.markedForDeletionAfterCommit();
+		} else {
+			checkUpdated(characterId, username,
+					characterRepository.updateDeletionDate(characterId, username, deletionDate, false));
+		}
+		eventStream.publishAfterCommit(CharacterEvent.Type.MARKED_FOR_DELETION,
+				characterRepository.findById(characterId).orElseThrow());
+	}
+
+	/**
+	 * Purges expired characters in chunks of {@code characters.purge.chunk-size}, each chunk in its own transaction,
+	 * until nothing is left or the time budget is spent. Purged rows are gone, so the next run simply picks up the
+	 * remaining backlog.
+	 */
+	@Timed("characters.purge.run")
+	@Scheduled(cron = "0 0 0 * * ?") // Run every day at midnight
+	public void deleteMarkedCharacters() {
+		LocalDate today = LocalDate.now();
+		TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+		long deadline = System.nanoTime() + purgeTimeBudget.toNanos();
+		int purged;
+		do {
+			Timer.Sample sample = Timer.start(meterRegistry);
+			purged = transactionTemplate.execute(status -> purgeChunk(today));
+			sample.stop(meterRegistry.timer("characters.purge.chunk"));
+			meterRegistry.counter("characters.purge.rows").increment(purged);
+		} while (purged == purgeChunkSize && System.nanoTime() < deadline);
+		purgeBacklog.set(characterRepository.countByDeletionDateBefore(today));
+	}
+
+	private int purgeChunk(LocalDate today) {
+		List<PurgeCandidate> candidates = characterRepository.findPurgeCandidates(today,
+				PageRequest.of(0, purgeChunkSize));
+		if (candidates.isEmpty()) {
+			return 0;
+		}
+		Map<Long, Long> deletedPerAccount = candidates.stream()
+				.collect(Collectors.groupingBy(PurgeCandidate::getAccountId, Collectors.counting()));
+		deletedPerAccount.forEach((accountId, count) -> accountRepository.releaseCharacterSlots(accountId, count.intValue()));
+		List<Long> ids = candidates.stream().map(PurgeCandidate::getId).toList();
+		searchIndex.removeAfterCommit(ids);
+		nameFilter.removeAfterCommit(candidates.stream().map(PurgeCandidate::getNameKey).toList());
+		eventStream.publishPurgedAfterCommit(candidates);
+		leaderboard.removeAfterCommit(ids);
+		statistics.purgedAfterCommit(candidates);
+		return characterRepository.deleteByIdIn(ids);
+	}
+
+	private Character findOwnedCharacter(Long characterId) {
 		String username = SecurityContextHolder.getContext().getAuthentication().getName();
 		Character character = characterRepository.findById(characterId)
 				.orElseThrow(() -> new IllegalArgumentException("Character not found"));
 		if (!character.getAccount().getUsername().equals(username)) {
 			throw new IllegalArgumentException("Character does not belong to the authenticated user.");
 		}
-		character.setDeletionDate(LocalDate.now().plusDays(30));
-		characterRepository.save(character);
+		return character;
 	}
 
-	@Scheduled(cron = "0 0 0 * * ?") // Run every day at midnight
-	public void deleteMarkedCharacters() {
-		List<Character> charactersToDelete = characterRepository.findByDeletionDateBefore(LocalDate.now());
-		characterRepository.deleteAll(charactersToDelete);
+	// The update matched nothing; only on this failure path do we load the character to tell why.
+	private void checkUpdated(Long characterId, String username, int updated) {
+		if (updated == 0) {
+			Character character = characterRepository.findById(characterId)
+					.orElseThrow(() -> new IllegalArgumentException("Character not found"));
+			if (!character.getAccount().getUsername().equals(username)) {
+				throw new IllegalArgumentException("Character does not belong to the authenticated user.");
+			}
+			throw new OptimisticLockingFailureException("Character " + characterId + " was modified concurrently.");
+		}
+	}
+
+	// Detached first, so pending writes are only shown to the caller and never flushed by this transaction.
+	private void applyPendingWrites(Character character) {
+		CommentWriteBehindBuffer.PendingComment pending = commentBuffer.get(character.getId());
+		long levels = levelBuffer.get(character.getId(), character.getAccount().getUsername());
+		if (pending == null && levels == 0) {
+			return;
+		}
+		entityManager.detach(character);
+		if (pending != null) {
+			character.setComment(pending.comment());
+		}
+		character.setLevel((int) Math.min(Integer.MAX_VALUE, character.getLevel() + levels));
+	}
+
+	// A missing name is left to the not-null constraint.
+	private void checkNameAvailable(String name) {
+		if (name != null && nameFilter.isTaken(name)) {
+			throw new DataIntegrityViolationException("Character name " + name + " is already taken.");
+		}
+	}
+
+	// Checked against the account's character counter instead of its characters collection, which is never loaded here.
+	private void reserveCharacterSlots(Account account, int count) {
+		if (accountRepository.reserveCharacterSlots(account.getId(), count, MAX_CHARACTERS_PER_ACCOUNT) == 0) {
+			throw new IllegalStateException("Maximum number of characters reached for this account.");
+		}
 	}
 }
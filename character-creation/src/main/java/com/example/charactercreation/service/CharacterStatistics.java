@@ -0,0 +1,178 @@
+package com.example.charactercreation.service;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.charactercreation.dto.CharacterStats;
+import com.example.charactercreation.model.Character;
+import com.example.charactercreation.repository.CharacterRepository;
+import com.example.charactercreation.repository.CharacterRepository.CharacterCount;
+import com.example.charactercreation.repository.CharacterRepository.PurgeCandidate;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Character counts for dashboards: in total, per vocation, per character class and pending deletion. They are kept in
+ * memory and adjusted after every committed create, deletion mark and purge, so reading them runs no query.
+ * <p>
+ * Every {@code characters.stats.reconcile-interval} they are replaced by one grouped count of the table. That corrects
+ * drift from changes this process never saw: writes by other instances, direct database edits, or a crash between a
+ * commit and its adjustment. Adjustments applied while the count runs are added on top of its result. A change that
+ * committed just before the count started but was applied just after is counted twice, until the next run.
+ */
+@Service
+public class CharacterStatistics implements SmartInitializingSingleton {
+
+	@Autowired
+	private CharacterRepository characterRepository;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	// Guarded by this; counts is null until loaded, recording only set while a reconciliation counts.
+	private Counts counts;
+	private Counts recording;
+
+	private Timer reconcileTimer;
+	private Counter drift;
+
+	@PostConstruct
+	void init() {
+		reconcileTimer = meterRegistry.timer("characters.stats.reconcile");
+		drift = meterRegistry.counter("characters.stats.reconcile.drift");
+	}
+
+	/** Counts the table once before the application starts serving. */
+	@Override
+	public void afterSingletonsInstantiated() {
+		reconcile();
+	}
+
+	/**
+	 * Replaces the counts with the table's, reading the primary like the startup loads. {@code drift} counts by how
+	 * much the kept counts were off, summed over all of them.
+	 */
+	@Scheduled(fixedDelayString = "${characters.stats.reconcile-interval:PT5M}",
+			initialDelayString = "${characters.stats.reconcile-interval:PT5M}")
+	public void reconcile() {
+		synchronized (this) {
+			recording = new Counts();
+		}
+		Counts actual;
+		try {
+			actual = reconcileTimer.record(() -> new TransactionTemplate(transactionManager)
+					.execute(status -> count(characterRepository.countCharacters())));
+		} catch (RuntimeException e) {
+			synchronized (this) {
+				recording = null;
+			}
+			throw e;
+		}
+		synchronized (this) {
+			actual.add(recording);
+			if (counts != null) {
+				drift.increment(counts.distance(actual));
+			}
+			counts = actual;
+			recording = null;
+		}
+	}
+
+	public void createdAfterCommit(List<Character> characters) {
+		Counts delta = new Counts();
+		characters.forEach(character -> delta.add(character.getVocation(), character.getCharacterClass(), false, 1));
+		TransactionCallbacks.afterCommit(() -> apply(delta));
+	}
+
+	public void markedForDeletionAfterCommit() {
+		Counts delta = new Counts();
+		delta.pendingDeletion = 1;
+		TransactionCallbacks.afterCommit(() -> apply(delta));
+	}
+
+	// Only characters marked for deletion are purged.
+	public void purgedAfterCommit(List<PurgeCandidate> candidates) {
+		Counts delta = new Counts();
+		candidates.forEach(candidate -> delta.add(candidate.getVocation(), candidate.getCharacterClass(), true, -1));
+		TransactionCallbacks.afterCommit(() -> apply(delta));
+	}
+
+	public synchronized CharacterStats snapshot() {
+		return new CharacterStats(counts.total, counts.pendingDeletion, new TreeMap<>(counts.byVocation),
+				new TreeMap<>(counts.byCharacterClass));
+	}
+
+	// Before the initial load, which happens before requests are served, there is nothing to adjust yet.
+	private synchronized void apply(Counts delta) {
+		if (counts != null) {
+			counts.add(delta);
+		}
+		if (recording != null) {
+			recording.add(delta);
+		}
+	}
+
+	private static Counts count(List<CharacterCount> rows) {
+		Counts counts = new Counts();
+		rows.forEach(row -> counts.add(row.getVocation(), row.getCharacterClass(), row.getPendingDeletion(),
+				row.getCount()));
+		return counts;
+	}
+
+	// Characters without a vocation or class only count in the total.
+	private static final class Counts {
+
+		private long total;
+		private long pendingDeletion;
+		private final Map<String, Long> byVocation = new HashMap<>();
+		private final Map<String, Long> byCharacterClass = new HashMap<>();
+
+		void add(String vocation, String characterClass, boolean pendingDeletion, long count) {
+			total += count;
+			if (pendingDeletion) {
+				this.pendingDeletion += count;
+			}
+			add(byVocation, vocation, count);
+			add(byCharacterClass, characterClass, count);
+		}
+
+		void add(Counts other) {
+			total += other.total;
+			pendingDeletion += other.pendingDeletion;
+			other.byVocation.forEach((vocation, count) -> add(byVocation, vocation, count));
+			other.byCharacterClass.forEach((characterClass, count) -> add(byCharacterClass, characterClass, count));
+		}
+
+		long distance(Counts other) {
+			return Math.abs(total - other.total) + Math.abs(pendingDeletion - other.pendingDeletion)
+					+ distance(byVocation, other.byVocation) + distance(byCharacterClass, other.byCharacterClass);
+		}
+
+		private static void add(Map<String, Long> counts, String key, long count) {
+			if (key != null) {
+				counts.merge(key, count, (a, b) -> a + b == 0 ? null : a + b);
+			}
+		}
+
+		private static long distance(Map<String, Long> counts, Map<String, Long> other) {
+			Map<String, Long> difference = new HashMap<>(counts);
+			other.forEach((key, count) -> add(difference, key, -count));
+			return difference.values().stream().mapToLong(Math::abs).sum();
+		}
+	}
+}
@@ -0,0 +1,226 @@
+package com.example.charactercreation.service;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.charactercreation.model.Character;
+import com.example.charactercreation.repository.CharacterRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Opt-in write-behind for comment edits ({@code characters.comments.write-behind.enabled}). Edits are kept per
+ * character, a newer edit replacing the older one, and written by a single flusher thread every
+ * {@code flush-interval} or as soon as {@code batch-size} characters are pending. Each flush loads the characters and
+ * sets their comments in one transaction, so Hibernate sends one JDBC batch of versioned updates and keeps the
+ * second-level and query caches coherent. Pending edits are flushed before the application context closes.
+ * <p>
+ * An entry only leaves the buffer once its value is committed, and only if no newer edit replaced it in the meantime,
+ * so readers that check the buffer first never see an older comment than the last accepted one.
+ * <p>
+ * At most {@code max-pending} characters wait in the buffer. Once it is full, e.g. because flushes keep failing, edits
+ * of other characters are written directly by the caller instead; see {@link #hasRoom}.
+ */
+@Service
+public class CommentWriteBehindBuffer {
+
+	/** A buffered comment; {@code sequence} orders all edits accepted by this buffer. */
+	public record PendingComment(String username, String comment, long sequence) {
+	}
+
+	@Autowired
+	private CharacterRepository characterRepository;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Value("${characters.comments.write-behind.enabled:false}")
+	private boolean enabled;
+
+	@Value("${characters.comments.write-behind.batch-size:100}")
+	private int batchSize;
+
+	@Value("${characters.comments.write-behind.flush-interval:PT1S}")
+	private Duration flushInterval;
+
+	@Value("${characters.comments.write-behind.max-attempts:3}")
+	private int maxAttempts;
+
+	@Value("${characters.comments.write-behind.max-pending:10000}")
+	private int maxPending;
+
+	private final Map<Long, PendingComment> pending = new ConcurrentHashMap<>();
+	private final AtomicLong sequence = new AtomicLong();
+	private final AtomicBoolean flushRequested = new AtomicBoolean();
+	private final Map<Long, Integer> failedAttempts = new ConcurrentHashMap<>();
+
+	private ScheduledExecutorService flusher;
+	private Counter coalesced;
+	private Counter flushed;
+	private Counter flushFailures;
+	private Counter dropped;
+	private Counter bypassed;
+
+	@PostConstruct
+	void start() {
+		meterRegistry.gaugeMapSize("characters.comments.pending", Tags.empty(), pending);
+		coalesced = meterRegistry.counter("characters.comments.coalesced");
+		flushed = meterRegistry.counter("characters.comments.flushed");
+		flushFailures = meterRegistry.counter("characters.comments.flush.failures");
+		dropped = meterRegistry.counter("characters.comments.dropped");
+		bypassed = meterRegistry.counter("characters.comments.bypassed");
+		if (enabled) {
+			flusher = Executors.newSingleThreadScheduledExecutor(runnable -> new Thread(runnable, "comment-flusher"));
+			flusher.scheduleWithFixedDelay(this::flushAll, flushInterval.toMillis(), flushInterval.toMillis(),
+					TimeUnit.MILLISECONDS);
+		}
+	}
+
+	@PreDestroy
+	void stop() throws InterruptedException {
+		if (flusher != null) {
+			flusher.shutdown();
+			flusher.awaitTermination(30, TimeUnit.SECONDS);
+		}
+		flushAll();
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Whether an edit of the character may be buffered: there is room, or it replaces a pending edit. When there is
+	 * none, a flush is requested and the caller writes the edit itself. Edits accepted concurrently can overshoot
+	 * {@code max-pending} by a few entries.
+	 */
+	public boolean hasRoom(Long characterId) {
+		if (pending.size() < maxPending || pending.containsKey(characterId)) {
+			return true;
+		}
+		bypassed.increment();
+		requestFlush();
+		return false;
+	}
+
+	/** Buffers the edit once the current transaction commits, so an edit that is rolled back is never written. */
+	public void putAfterCommit(Long characterId, String username, String comment) {
+		TransactionCallbacks.afterCommit(() -> put(characterId, username, comment));
+	}
+
+	public void put(Long characterId, String username, String comment) {
+		if (pending.put(characterId, new PendingComment(username, comment, sequence.incrementAndGet())) != null) {
+			coalesced.increment();
+		}
+		if (pending.size() >= batchSize) {
+			requestFlush();
+		}
+	}
+
+	private void requestFlush() {
+		if (flusher != null && flushRequested.compareAndSet(false, true)) {
+			flusher.execute(() -> {
+				flushRequested.set(false);
+				flushAll();
+			});
+		}
+	}
+
+	/** The not yet written comment of the character, or {@code null} if there is none. */
+	public PendingComment get(Long characterId) {
+		return pending.get(characterId);
+	}
+
+	/**
+	 * Newest sequence among the user's pending edits, {@code 0} if there are none. Walks the whole buffer, so it costs
+	 * up to {@code max-pending} entries.
+	 */
+	public long pendingStamp(String username) {
+		long stamp = 0;
+		for (PendingComment comment : pending.values()) {
+			if (comment.username().equals(username)) {
+				stamp = Math.max(stamp, comment.sequence());
+			}
+		}
+		return stamp;
+	}
+
+	/**
+	 * Writes pending edits in chunks of {@code batch-size} until the buffer is empty. When a chunk fails, its edits are
+	 * written one by one with fresh versions, so one bad edit cannot hold back the others. An edit that still fails
+	 * waits for the next run, and is dropped once it has failed {@code max-attempts} times.
+	 */
+	public synchronized void flushAll() {
+		Set<Long> retryLater = new HashSet<>();
+		while (true) {
+			Map<Long, PendingComment> batch = new LinkedHashMap<>();
+			for (Map.Entry<Long, PendingComment> entry : pending.entrySet()) {
+				if (!retryLater.contains(entry.getKey())) {
+					batch.put(entry.getKey(), entry.getValue());
+					if (batch.size() == batchSize) {
+						break;
+					}
+				}
+			}
+			if (batch.isEmpty()) {
+				return;
+			}
+			try {
+				write(batch);
+			} catch (RuntimeException e) {
+				flushFailures.increment();
+				batch.forEach((id, comment) -> {
+					try {
+						write(Map.of(id, comment));
+					} catch (RuntimeException singleFailure) {
+						retryLater.add(id);
+						recordFailure(id, comment);
+					}
+				});
+			}
+		}
+	}
+
+	private void write(Map<Long, PendingComment> batch) {
+		new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+			for (Character character : characterRepository.findAllById(batch.keySet())) {
+				character.setComment(batch.get(character.getId()).comment());
+			}
+		});
+		// Characters purged in the meantime were simply not found; their edits are dropped with the rest.
+		batch.forEach(pending::remove);
+		failedAttempts.keySet().removeAll(batch.keySet());
+		flushed.increment(batch.size());
+	}
+
+	private void recordFailure(Long characterId, PendingComment comment) {
+		if (failedAttempts.merge(characterId, 1, Integer::sum) >= maxAttempts) {
+			failedAttempts.remove(characterId);
+			if (pending.remove(characterId, comment)) {
+				dropped.increment();
+			}
+		}
+	}
+}
@@ -0,0 +1,122 @@
+package com.example.charactercreation.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread-safe counting Bloom filter with 4-bit counters, sixteen to a {@code long}. Unlike a plain Bloom filter it
+ * supports {@link #remove}, at four times the memory: about 4.8 MB per million keys at a 1% false-positive rate. A
+ * counter that reaches 15 stays there, which can only cause false positives, never false negatives.
+ */
+final class CountingBloomFilter {
+
+	private static final int BITS_PER_COUNTER = 4;
+	private static final int COUNTERS_PER_WORD = Long.SIZE / BITS_PER_COUNTER;
+	private static final long MAX_COUNT = (1L << BITS_PER_COUNTER) - 1;
+
+	private final AtomicLongArray words;
+	private final int counters;
+	private final int hashes;
+	private final AtomicLong nonZeroCounters = new AtomicLong();
+
+	CountingBloomFilter(long expectedInsertions, double falsePositiveRate) {
+		double ln2 = Math.log(2);
+		long optimalCounters = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (ln2 * ln2));
+		counters = (int) Math.min(Math.max(optimalCounters, COUNTERS_PER_WORD), Integer.MAX_VALUE - COUNTERS_PER_WORD);
+		hashes = Math.max(1, (int) Math.round((double) counters / expectedInsertions * ln2));
+		words = new AtomicLongArray((counters + COUNTERS_PER_WORD - 1) / COUNTERS_PER_WORD);
+	}
+
+	void add(String key) {
+		long hash = hash(key);
+		for (int i = 0; i < hashes; i++) {
+			increment(index(hash, i));
+		}
+	}
+
+	/** Removes a key that was added before; removing anything else corrupts the filter. */
+	void remove(String key) {
+		long hash = hash(key);
+		for (int i = 0; i < hashes; i++) {
+			decrement(index(hash, i));
+		}
+	}
+
+	boolean mightContain(String key) {
+		long hash = hash(key);
+		for (int i = 0; i < hashes; i++) {
+			if (count(index(hash, i)) == 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/** False-positive rate expected from the current fill: the chance that all counters of a new key are set. */
+	double expectedFalsePositiveRate() {
+		return Math.pow((double) nonZeroCounters.get() / counters, hashes);
+	}
+
+	private long count(int index) {
+		return (words.get(index / COUNTERS_PER_WORD) >>> shift(index)) & MAX_COUNT;
+	}
+
+	private void increment(int index) {
+		int word = index / COUNTERS_PER_WORD;
+		int shift = shift(index);
+		while (true) {
+			long current = words.get(word);
+			long count = (current >>> shift) & MAX_COUNT;
+			if (count == MAX_COUNT) {
+				return;
+			}
+			if (words.compareAndSet(word, current, current + (1L << shift))) {
+				if (count == 0) {
+					nonZeroCounters.incrementAndGet();
+				}
+				return;
+			}
+		}
+	}
+
+	private void decrement(int index) {
+		int word = index / COUNTERS_PER_WORD;
+		int shift = shift(index);
+		while (true) {
+			long current = words.get(word);
+			long count = (current >>> shift) & MAX_COUNT;
+			if (count == 0 || count == MAX_COUNT) {
+				return;
+			}
+			if (words.compareAndSet(word, current, current - (1L << shift))) {
+				if (count == 1) {
+					nonZeroCounters.decrementAndGet();
+				}
+				return;
+			}
+		}
+	}
+
+	private static int shift(int index) {
+		return (index % COUNTERS_PER_WORD) * BITS_PER_COUNTER;
+	}
+
+	// Double hashing: the i-th index is h1 + i * h2, with h1 and h2 the two halves of one 64-bit hash of the key.
+	private int index(long hash, int i) {
+		long h1 = hash & 0xffffffffL;
+		long h2 = (hash >>> 32) | 1;
+		return (int) Math.floorMod(h1 + i * h2, (long) counters);
+	}
+
+	// FNV-1a over the UTF-16 chars, then the SplitMix64 finalizer to spread the bits of short keys.
+	private static long hash(String key) {
+		long hash = 0xcbf29ce484222325L;
+		for (int i = 0; i < key.length(); i++) {
+			hash ^= key.charAt(i);
+			hash *= 0x100000001b3L;
+		}
+		hash = (hash ^ (hash >>> 30)) * 0xbf58476d1ce4e5b9L;
+		hash = (hash ^ (hash >>> 27)) * 0x94d049bb133111ebL;
+		return hash ^ (hash >>> 31);
+	}
+}
@@ -1,34 +1,131 @@
 package com.example.charactercreation.service;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.io.Serializer;
+import io.jsonwebtoken.security.SignatureException;
+import jakarta.annotation.PostConstruct;
+
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+
 @Service
 public class JwtService {
 
+    // Active signing key and its id, written to the kid header of every new token.
     @Value("${jwt.secret}")
     private String secret;
 
+    @Value("${jwt.key-id:default}")
+    private String keyId;
+
+    // Retired keys that are still accepted for verification, as "kid:base64secret" pairs separated by commas.
+    @Value("${jwt.verification-keys:}")
+    private String verificationKeys;
+
+    @Value("${jwt.access-token.ttl:PT10M}")
+    private Duration accessTokenTtl;
+
+    @Value("${jwt.claims-cache.max-size:10000}")
+    private long claimsCacheMaxSize;
+
+    private SecretKey signingKey;
+    private Map<String, SecretKey> keyRing;
+    private JwtParser parser;
+    private Serializer<Map<String, ?>> serializer;
+
+    // Verified claims keyed by the SHA-256 digest of the token, each entry living until the token's own exp.
+    private Cache<String, Claims> claimsCache;
+
+    /**
+     * Derives every key once and builds a single parser and JSON serializer, instead of decoding the secret and
+     * looking up the JSON implementation on every generate and parse.
+     */
+    @PostConstruct
+    @SuppressWarnings("unchecked")
+    void init() {
+        Map<String, SecretKey> keys = new HashMap<>();
+        if (verificationKeys != null && !verificationKeys.isBlank()) {
+            for (String entry : verificationKeys.split(",")) {
+                String[] kidAndSecret = entry.trim().split(":", 2);
+                keys.put(kidAndSecret[0], hmacKey(kidAndSecret[1]));
+            }
+        }
+        signingKey = hmacKey(secret);
+        keys.put(keyId, signingKey);
+        keyRing = Map.copyOf(keys);
+        parser = Jwts.parserBuilder()
+                .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                    @Override
+                    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                        return resolveKey(header.getKeyId());
+                    }
+                })
+                .build();
+        serializer = ServiceLoader.load(Serializer.class).findFirst()
+                .orElseThrow(() -> new IllegalStateException("No JWT JSON serializer on the classpath"));
+
+        claimsCache = Caffeine.newBuilder()
+                .maximumSize(claimsCacheMaxSize)
+                .expireAfter(new Expiry<String, Claims>() {
+                    @Override
+                    public long expireAfterCreate(String key, Claims claims, long currentTime) {
+                        long remainingMillis = claims.getExpiration().getTime() - System.currentTimeMillis();
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(remainingMillis, 0));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Claims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Claims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+    }
+
     public String generateToken(String username) {
         return Jwts.builder()
                 .setSubject(username)
                 .setIssuedAt(new Date())
-                .setExpiration(new Date(System.currentTimeMillis() + 10 * 60 * 1000)) // 10 minutes
-                .signWith(SignatureAlgorithm.HS256, secret)
+                .setExpiration(new Date(System.currentTimeMillis() + accessTokenTtl.toMillis()))
+                .setHeaderParam(JwsHeader.KEY_ID, keyId)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
+                .serializeToJsonWith(serializer)
                 .compact();
     }
 
-    public long getExpirationTimeMillis() {
-        return System.currentTimeMillis() + 10 * 60 * 1000;
-    }
-
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
     }
@@ -42,16 +139,60 @@ public class JwtService {
         return claimsResolver.apply(claims);
     }
 
-    private Claims extractAllClaims(String token) {
-        return Jwts.parser().setSigningKey(secret).parseClaimsJws(token).getBody();
+    /**
+     * Returns the verified claims of the token, parsing and checking the signature only on the first call
+     * for a given token. Invalid or expired tokens are never cached, so they keep throwing on every call.
+     */
+    public Claims extractAllClaims(String token) {
+        String key = digest(token);
+        Claims claims = claimsCache.getIfPresent(key);
+        if (claims == null) {
+            claims = parser.parseClaimsJws(token).getBody();
+            if (claims.getExpiration() != null) {
+                claimsCache.put(key, claims);
+            }
+        }
+        return claims;
     }
 
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    public CacheStats getClaimsCacheStats() {
+        return claimsCache.stats();
+    }
+
+    private Boolean isTokenExpired(Claims claims) {
+        return claims.getExpiration().before(new Date());
     }
 
     public Boolean validateToken(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+        return validateClaims(extractAllClaims(token), userDetails);
+    }
+
+    public Boolean validateClaims(Claims claims, UserDetails userDetails) {
+        return (claims.getSubject().equals(userDetails.getUsername()) && !isTokenExpired(claims));
+    }
+
+    // Tokens issued before key ids were introduced carry no kid and were signed with the active secret.
+    private Key resolveKey(String kid) {
+        if (kid == null) {
+            return signingKey;
+        }
+        SecretKey key = keyRing.get(kid);
+        if (key == null) {
+            throw new SignatureException("Unknown signing key id: " + kid);
+        }
+        return key;
+    }
+
+    private static SecretKey hmacKey(String base64Secret) {
+        return new SecretKeySpec(Decoders.BASE64.decode(base64Secret), SignatureAlgorithm.HS256.getJcaName());
+    }
+
+    private static String digest(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return Base64.getEncoder().encodeToString(sha256.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,207 @@
+package com.example.charactercreation.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.StampedLock;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.charactercreation.repository.CharacterRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Collects levels awarded by gameplay, so a stream of small awards to a character costs one database write per flush
+ * rather than one per award. Awards go into {@link StripedCounters} without taking a lock. A single flusher thread
+ * writes them every {@code characters.levels.flush-interval}, as one JDBC batch of {@code level = level + ?} updates
+ * per {@code batch-size} characters, each batch in its own transaction. Additive updates can't overwrite a concurrent
+ * change, so they skip the version check, but they still bump the version so that ETags change. Pending levels are
+ * flushed before the application context closes.
+ * <p>
+ * When a batch fails, its characters are written one by one, so one character whose update keeps failing, e.g.
+ * because its level would no longer fit the column, cannot hold back the others. Its levels are retried on the next
+ * run and dropped once they have failed {@code characters.levels.max-attempts} times.
+ * <p>
+ * Reads add the {@link #get pending levels} to the stored ones. Levels count as pending until the flush that writes
+ * them committed, so they never drop out of reads in between.
+ */
+@Service
+public class LevelWriteBehindBuffer {
+
+	// The username lets account ETags change while levels are pending; a character never changes accounts.
+	private record PendingKey(Long characterId, String username) {
+	}
+
+	@Autowired
+	private CharacterRepository characterRepository;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private CharacterLeaderboard leaderboard;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Value("${characters.levels.batch-size:500}")
+	private int batchSize;
+
+	@Value("${characters.levels.flush-interval:PT1S}")
+	private Duration flushInterval;
+
+	@Value("${characters.levels.max-attempts:3}")
+	private int maxAttempts;
+
+	private final StripedCounters<PendingKey> pending = new StripedCounters<>();
+	private final StripedCounters<String> pendingByUsername = new StripedCounters<>();
+	// Drained by the running flush and not committed yet.
+	private final Map<PendingKey, Long> inFlight = new ConcurrentHashMap<>();
+	// Held for writing while levels move between pending and inFlight, so a read never counts them twice or not at all.
+	private final StampedLock moveLock = new StampedLock();
+	private final Map<PendingKey, Integer> failedAttempts = new ConcurrentHashMap<>();
+
+	private ScheduledExecutorService flusher;
+	private Counter awarded;
+	private Counter flushed;
+	private Counter flushFailures;
+	private Counter dropped;
+
+	@PostConstruct
+	void start() {
+		Gauge.builder("characters.levels.pending", pending, StripedCounters::size).register(meterRegistry);
+		awarded = meterRegistry.counter("characters.levels.awarded");
+		flushed = meterRegistry.counter("characters.levels.flushed");
+		flushFailures = meterRegistry.counter("characters.levels.flush.failures");
+		dropped = meterRegistry.counter("characters.levels.dropped");
+		flusher = Executors.newSingleThreadScheduledExecutor(runnable -> new Thread(runnable, "level-flusher"));
+		flusher.scheduleWithFixedDelay(this::flushAll, flushInterval.toMillis(), flushInterval.toMillis(),
+				TimeUnit.MILLISECONDS);
+	}
+
+	@PreDestroy
+	void stop() throws InterruptedException {
+		flusher.shutdown();
+		flusher.awaitTermination(30, TimeUnit.SECONDS);
+		flushAll();
+	}
+
+	public void add(Long characterId, String username, int levels) {
+		pending.add(new PendingKey(characterId, username), levels);
+		pendingByUsername.add(username, levels);
+		awarded.increment(levels);
+	}
+
+	/** Levels awarded to the character that are not yet in its stored level. */
+	public long get(Long characterId, String username) {
+		PendingKey key = new PendingKey(characterId, username);
+		long stamp = moveLock.tryOptimisticRead();
+		long levels = pending.get(key) + inFlight.getOrDefault(key, 0L);
+		if (!moveLock.validate(stamp)) {
+			stamp = moveLock.readLock();
+			try {
+				levels = pending.get(key) + inFlight.getOrDefault(key, 0L);
+			} finally {
+				moveLock.unlockRead(stamp);
+			}
+		}
+		return levels;
+	}
+
+	/** Levels pending for any of the user's characters, {@code 0} if there are none. */
+	public long pendingStamp(String username) {
+		return pendingByUsername.get(username);
+	}
+
+	/**
+	 * Writes everything pending in batches of {@code batch-size}. If a batch fails, its characters are written one by
+	 * one; those that still fail go back to pending, or are dropped after {@code max-attempts} failed runs. Levels of
+	 * characters purged in the meantime update no row and are dropped.
+	 */
+	public synchronized void flushAll() {
+		List<Map.Entry<PendingKey, Long>> drained = new ArrayList<>(drain().entrySet());
+		TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+		for (int from = 0; from < drained.size(); from += batchSize) {
+			List<Map.Entry<PendingKey, Long>> batch = drained.subList(from, Math.min(from + batchSize, drained.size()));
+			try {
+				transactionTemplate.executeWithoutResult(status -> write(batch));
+				written(batch);
+			} catch (RuntimeException e) {
+				flushFailures.increment();
+				for (Map.Entry<PendingKey, Long> entry : batch) {
+					try {
+						transactionTemplate.executeWithoutResult(status -> write(List.of(entry)));
+						written(List.of(entry));
+					} catch (RuntimeException entryFailure) {
+						recordFailure(entry);
+					}
+				}
+			}
+		}
+		pendingByUsername.removeZeros();
+	}
+
+	private Map<PendingKey, Long> drain() {
+		long stamp = moveLock.writeLock();
+		try {
+			Map<PendingKey, Long> drained = pending.drain();
+			inFlight.putAll(drained);
+			return drained;
+		} finally {
+			moveLock.unlockWrite(stamp);
+		}
+	}
+
+	private void written(List<Map.Entry<PendingKey, Long>> entries) {
+		for (Map.Entry<PendingKey, Long> entry : entries) {
+			inFlight.remove(entry.getKey());
+			failedAttempts.remove(entry.getKey());
+			pendingByUsername.add(entry.getKey().username(), -entry.getValue());
+		}
+		flushed.increment(entries.size());
+	}
+
+	private void recordFailure(Map.Entry<PendingKey, Long> entry) {
+		PendingKey key = entry.getKey();
+		if (failedAttempts.merge(key, 1, Integer::sum) < maxAttempts) {
+			restore(entry);
+			return;
+		}
+		failedAttempts.remove(key);
+		inFlight.remove(key);
+		pendingByUsername.add(key.username(), -entry.getValue());
+		dropped.increment();
+	}
+
+	private void restore(Map.Entry<PendingKey, Long> entry) {
+		long stamp = moveLock.writeLock();
+		try {
+			inFlight.remove(entry.getKey());
+			pending.add(entry.getKey(), entry.getValue());
+		} finally {
+			moveLock.unlockWrite(stamp);
+		}
+	}
+
+	private void write(List<Map.Entry<PendingKey, Long>> batch) {
+		Map<Long, Long> levelsById = new HashMap<>();
+		batch.forEach(entry -> levelsById.put(entry.getKey().characterId(), entry.getValue()));
+		characterRepository.addLevels(levelsById);
+		leaderboard.updateLevelsAfterCommit(characterRepository.findLeaderboardRows(levelsById.keySet()));
+	}
+}
@@ -0,0 +1,161 @@
+package com.example.charactercreation.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Sorted set with positional access, as a skip list whose links also record how many elements they skip (the layout of
+ * Redis sorted sets). Adding, removing and the rank of an element take expected logarithmic time; the first
+ * {@code n} elements cost a logarithmic search plus {@code n} steps.
+ * <p>
+ * Not thread-safe: {@link CharacterLeaderboard} guards it with a read-write lock.
+ */
+final class RankedSkipList<E> {
+
+	private static final int MAX_LEVEL = 32;
+
+	private final Comparator<? super E> comparator;
+	private final Node<E> head = new Node<>(null, MAX_LEVEL);
+	private int levels = 1;
+	private int size;
+
+	RankedSkipList(Comparator<? super E> comparator) {
+		this.comparator = comparator;
+	}
+
+	int size() {
+		return size;
+	}
+
+	boolean add(E element) {
+		@SuppressWarnings("unchecked")
+		Node<E>[] update = new Node[MAX_LEVEL];
+		int[] position = new int[MAX_LEVEL];
+		Node<E> node = head;
+		for (int i = levels - 1; i >= 0; i--) {
+			position[i] = i == levels - 1 ? 0 : position[i + 1];
+			while (node.next[i] != null && comparator.compare(node.next[i].element, element) < 0) {
+				position[i] += node.span[i];
+				node = node.next[i];
+			}
+			update[i] = node;
+		}
+		if (node.next[0] != null && comparator.compare(node.next[0].element, element) == 0) {
+			return false;
+		}
+		int level = randomLevel();
+		if (level > levels) {
+			for (int i = levels; i < level; i++) {
+				position[i] = 0;
+				update[i] = head;
+				head.span[i] = size;
+			}
+			levels = level;
+		}
+		Node<E> added = new Node<>(element, level);
+		for (int i = 0; i < level; i++) {
+			added.next[i] = update[i].next[i];
+			update[i].next[i] = added;
+			added.span[i] = update[i].span[i] - (position[0] - position[i]);
+			update[i].span[i] = position[0] - position[i] + 1;
+		}
+		for (int i = level; i < levels; i++) {
+			update[i].span[i]++;
+		}
+		size++;
+		return true;
+	}
+
+	boolean remove(E element) {
+		@SuppressWarnings("unchecked")
+		Node<E>[] update = new Node[MAX_LEVEL];
+		Node<E> node = head;
+		for (int i = levels - 1; i >= 0; i--) {
+			while (node.next[i] != null && comparator.compare(node.next[i].element, element) < 0) {
+				node = node.next[i];
+			}
+			update[i] = node;
+		}
+		Node<E> removed = node.next[0];
+		if (removed == null || comparator.compare(removed.element, element) != 0) {
+			return false;
+		}
+		for (int i = 0; i < levels; i++) {
+			if (update[i].next[i] == removed) {
+				update[i].span[i] += removed.span[i] - 1;
+				update[i].next[i] = removed.next[i];
+			} else {
+				update[i].span[i]--;
+			}
+		}
+		while (levels > 1 && head.next[levels - 1] == null) {
+			levels--;
+		}
+		size--;
+		return true;
+	}
+
+	/** 1-based position of the element, or {@code 0} if it is not in the list. */
+	int rank(E element) {
+		int rank = 0;
+		Node<E> node = head;
+		for (int i = levels - 1; i >= 0; i--) {
+			while (node.next[i] != null && comparator.compare(node.next[i].element, element) <= 0) {
+				rank += node.span[i];
+				node = node.next[i];
+			}
+			if (node != head && comparator.compare(node.element, element) == 0) {
+				return rank;
+			}
+		}
+		return 0;
+	}
+
+	/** The elements at positions {@code from + 1} to {@code from + count}, in order. */
+	List<E> range(int from, int count) {
+		List<E> elements = new ArrayList<>(Math.max(0, Math.min(count, size - from)));
+		if (from >= size || count <= 0) {
+			return elements;
+		}
+		// Descend to the element just before position from + 1, then walk the bottom level.
+		int position = 0;
+		Node<E> node = head;
+		for (int i = levels - 1; i >= 0; i--) {
+			while (node.next[i] != null && position + node.span[i] <= from) {
+				position += node.span[i];
+				node = node.next[i];
+			}
+		}
+		for (node = node.next[0]; node != null && elements.size() < count; node = node.next[0]) {
+			elements.add(node.element);
+		}
+		return elements;
+	}
+
+	// Each level up with probability 1/4, as in Redis: about 1.33 links per element.
+	private static int randomLevel() {
+		int level = 1;
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		while (level < MAX_LEVEL && random.nextInt(4) == 0) {
+			level++;
+		}
+		return level;
+	}
+
+	private static final class Node<E> {
+
+		private final E element;
+		private final Node<E>[] next;
+		// span[i]: bottom-level steps from this node to next[i], or to the end of the list if there is none.
+		private final int[] span;
+
+		@SuppressWarnings("unchecked")
+		Node(E element, int level) {
+			this.element = element;
+			this.next = new Node[level];
+			this.span = new int[level];
+		}
+	}
+}
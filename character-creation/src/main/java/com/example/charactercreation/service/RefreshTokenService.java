@@ -0,0 +1,98 @@
+package com.example.charactercreation.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.charactercreation.model.RefreshToken;
+import com.example.charactercreation.repository.RefreshTokenRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+@Service
+public class RefreshTokenService {
+
+	private static final SecureRandom RANDOM = new SecureRandom();
+
+	@Autowired
+	private RefreshTokenRepository refreshTokenRepository;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Value("${jwt.refresh-token.ttl:P14D}")
+	private Duration refreshTokenTtl;
+
+	/**
+	 * Creates a new opaque refresh token for the user. The returned value is only ever handed to the client, the
+	 * database keeps its digest.
+	 */
+	@Transactional
+	public String issue(String username) {
+		byte[] bytes = new byte[32];
+		RANDOM.nextBytes(bytes);
+		String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+		RefreshToken refreshToken = new RefreshToken();
+		refreshToken.setTokenHash(digest(token));
+		refreshToken.setUsername(username);
+		refreshToken.setExpiresAt(Instant.now().plus(refreshTokenTtl));
+		refreshTokenRepository.save(refreshToken);
+		return token;
+	}
+
+	/**
+	 * Redeems a refresh token once and returns the user it belongs to. A token that was already redeemed being
+	 * presented again means it was copied, so every live refresh token of that user is revoked as well.
+	 */
+	@Transactional(noRollbackFor = IllegalArgumentException.class)
+	public String redeem(String token) {
+		RefreshToken refreshToken = refreshTokenRepository.findByTokenHash(digest(token)).orElseThrow(() -> {
+			meterRegistry.counter("auth.refresh", "result", "invalid").increment();
+			return new IllegalArgumentException("Invalid refresh token");
+		});
+		if (refreshTokenRepository.redeem(refreshToken.getId(), Instant.now()) == 0) {
+			if (refreshToken.isRevoked()) {
+				refreshTokenRepository.revokeAllByUsername(refreshToken.getUsername());
+				meterRegistry.counter("auth.refresh", "result", "reused").increment();
+			} else {
+				meterRegistry.counter("auth.refresh", "result", "expired").increment();
+			}
+			throw new IllegalArgumentException("Invalid refresh token");
+		}
+		meterRegistry.counter("auth.refresh", "result", "success").increment();
+		return refreshToken.getUsername();
+	}
+
+	@Transactional
+	public void revoke(String token) {
+		refreshTokenRepository.findByTokenHash(digest(token))
+				.ifPresent(refreshToken -> refreshTokenRepository.redeem(refreshToken.getId(), Instant.now()));
+	}
+
+	// Redeemed tokens are only needed for replay detection until they would have expired anyway.
+	@Scheduled(cron = "0 30 0 * * ?")
+	@Transactional
+	public void deleteExpiredTokens() {
+		refreshTokenRepository.deleteExpired(Instant.now());
+	}
+
+	private static String digest(String token) {
+		try {
+			MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+			return Base64.getEncoder().encodeToString(sha256.digest(token.getBytes(StandardCharsets.UTF_8)));
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 not available", e);
+		}
+	}
+}
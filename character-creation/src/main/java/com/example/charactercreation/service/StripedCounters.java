@@ -0,0 +1,68 @@
+package com.example.charactercreation.service;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A {@link LongAdder} per key, created on first use and dropped once drained to zero. Adding takes no lock, and
+ * threads adding to the same key update different cells of its adder, so a hot key doesn't become a contended memory
+ * location. Draining moves each cell's count out atomically, so every addition is taken exactly once even while
+ * others keep adding.
+ */
+final class StripedCounters<K> {
+
+	private final Map<K, LongAdder> counters = new ConcurrentHashMap<>();
+
+	void add(K key, long delta) {
+		while (delta != 0) {
+			LongAdder counter = counters.computeIfAbsent(key, k -> new LongAdder());
+			counter.add(delta);
+			if (counters.get(key) == counter) {
+				return;
+			}
+			// Retired while we added: whatever it still holds, ours or a racing thread's, moves to the live counter.
+			delta = counter.sumThenReset();
+		}
+	}
+
+	long get(K key) {
+		LongAdder counter = counters.get(key);
+		return counter == null ? 0 : counter.sum();
+	}
+
+	int size() {
+		return counters.size();
+	}
+
+	/** Takes the counts of all keys, leaving zero behind; keys that had nothing since the last drain are dropped. */
+	Map<K, Long> drain() {
+		Map<K, Long> drained = new HashMap<>();
+		counters.forEach((key, counter) -> {
+			long count = counter.sumThenReset();
+			if (count != 0) {
+				drained.put(key, count);
+			} else {
+				retire(key, counter);
+			}
+		});
+		return drained;
+	}
+
+	/** Drops the keys whose count is zero. */
+	void removeZeros() {
+		counters.forEach((key, counter) -> {
+			if (counter.sum() == 0) {
+				retire(key, counter);
+			}
+		});
+	}
+
+	// An add that raced with the removal either sees it and moves its delta itself, or is swept up here.
+	private void retire(K key, LongAdder counter) {
+		if (counters.remove(key, counter)) {
+			add(key, counter.sumThenReset());
+		}
+	}
+}
@@ -0,0 +1,27 @@
+package com.example.charactercreation.service;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Defers in-memory side effects of a write, such as index updates, until its transaction committed, so a rollback
+ * never leaves them behind. Outside a transaction the action runs right away.
+ */
+final class TransactionCallbacks {
+
+	private TransactionCallbacks() {
+	}
+
+	static void afterCommit(Runnable action) {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			action.run();
+			return;
+		}
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCommit() {
+				action.run();
+			}
+		});
+	}
+}
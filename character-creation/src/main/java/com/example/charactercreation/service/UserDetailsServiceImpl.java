@@ -1,29 +1,71 @@
 package com.example.charactercreation.service;
 
+import java.time.Duration;
 import java.util.ArrayList;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.example.charactercreation.config.ReadWriteRoutingDataSource;
 import com.example.charactercreation.model.Account;
 import com.example.charactercreation.repository.AccountRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
 
 @Service
 public class UserDetailsServiceImpl implements UserDetailsService {
 
     private final AccountRepository accountRepository;
+    private final ReadWriteRoutingDataSource routingDataSource;
+    private final TransactionTemplate readOnlyTransaction;
 
-    public UserDetailsServiceImpl(AccountRepository accountRepository) {
+    // Unknown usernames are not cached, so a freshly created account is visible right away.
+    private final Cache<String, UserDetails> principalCache;
+
+    public UserDetailsServiceImpl(AccountRepository accountRepository, ReadWriteRoutingDataSource routingDataSource,
+            PlatformTransactionManager transactionManager,
+            @Value("${security.principal-cache.max-size:10000}") long maxSize,
+            @Value("${security.principal-cache.ttl:PT5M}") Duration ttl) {
         this.accountRepository = accountRepository;
+        this.routingDataSource = routingDataSource;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.principalCache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
     }
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        Account account = accountRepository.findByUsername(username)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found with username: " + username));
-        return new User(account.getUsername(), account.getPasswordHash(), new ArrayList<>());
+        UserDetails userDetails = principalCache.getIfPresent(username);
+        if (userDetails == null) {
+            // From the replica, unless the user just wrote, e.g. signed up, and the replica may not have the account yet.
+            Account account = routingDataSource.stickyFor(username,
+                    () -> readOnlyTransaction.execute(status -> accountRepository.findByUsername(username)))
+                    .orElseThrow(() -> new UsernameNotFoundException("User not found with username: " + username));
+            userDetails = new User(account.getUsername(), account.getPasswordHash(), new ArrayList<>());
+            principalCache.put(username, userDetails);
+        }
+        return userDetails;
+    }
+
+    /**
+     * Drops the cached principal of the given user. Must be called whenever the account or its password hash changes.
+     */
+    public void evictPrincipal(String username) {
+        principalCache.invalidate(username);
+    }
+
+    public CacheStats getPrincipalCacheStats() {
+        return principalCache.stats();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,188 @@
+package com.example.charactercreation.config;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+
+class AuthRateLimitFilterTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private AuthRateLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        filter = new AuthRateLimitFilter();
+        ReflectionTestUtils.setField(filter, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(filter, "enabled", true);
+        ReflectionTestUtils.setField(filter, "loginPerIp", "3/PT1M");
+        ReflectionTestUtils.setField(filter, "loginPerUsername", "2/PT1M");
+        ReflectionTestUtils.setField(filter, "createAccountPerIp", "");
+        ReflectionTestUtils.setField(filter, "createAccountPerUsername", "");
+        ReflectionTestUtils.setField(filter, "maxBuckets", 1000L);
+        ReflectionTestUtils.setField(filter, "maxConcurrent", 1);
+        ReflectionTestUtils.setField(filter, "shedRetryAfter", Duration.ofSeconds(2));
+        ReflectionTestUtils.setField(filter, "maxBodySize", DataSize.ofBytes(256));
+        filter.init();
+    }
+
+    @Test
+    void perIpLimit_RejectsWithRetryAfter() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            assertEquals(200, login("10.0.0.1", "user" + i).getStatus());
+        }
+
+        MockHttpServletResponse response = login("10.0.0.1", "user3");
+
+        assertEquals(429, response.getStatus());
+        assertEquals("20", response.getHeader("Retry-After"));
+        assertEquals(200, login("10.0.0.2", "user3").getStatus());
+        assertEquals(1, counter("login", "ip_limited"));
+    }
+
+    @Test
+    void perUsernameLimit_AppliesAcrossIps() throws Exception {
+        assertEquals(200, login("10.0.0.1", "victim").getStatus());
+        assertEquals(200, login("10.0.0.2", "victim").getStatus());
+
+        assertEquals(429, login("10.0.0.3", "victim").getStatus());
+        assertEquals(1, counter("login", "username_limited"));
+    }
+
+    @Test
+    void body_IsReplayedToTheController() throws Exception {
+        MockHttpServletRequest request = loginRequest("10.0.0.1", "reader");
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        assertArrayEquals(request.getContentAsByteArray(), chain.getRequest().getInputStream().readAllBytes());
+    }
+
+    @Test
+    void oversizedBody_IsRefusedUnread() throws Exception {
+        MockHttpServletRequest request = loginRequest("10.0.0.1", "x".repeat(300));
+        MockFilterChain chain = new MockFilterChain();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, chain);
+
+        assertEquals(413, response.getStatus());
+        assertNull(chain.getRequest());
+        assertEquals(1, counter("login", "too_large"));
+    }
+
+    @Test
+    void oversizedBodyWithoutContentLength_IsRefused() throws Exception {
+        byte[] content = loginRequest("10.0.0.1", "x".repeat(300)).getContentAsByteArray();
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/users/login") {
+            @Override
+            public long getContentLengthLong() {
+                return -1;
+            }
+        };
+        request.setServletPath("/users/login");
+        request.setContent(content);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, new MockFilterChain());
+
+        assertEquals(413, response.getStatus());
+    }
+
+    @Test
+    void body_IsReplayedToAReadListener() throws Exception {
+        MockHttpServletRequest request = loginRequest("10.0.0.1", "nonblocking");
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+        ServletInputStream in = chain.getRequest().getInputStream();
+        ByteArrayOutputStream read = new ByteArrayOutputStream();
+        boolean[] allDataRead = new boolean[1];
+
+        in.setReadListener(new ReadListener() {
+            @Override
+            public void onDataAvailable() throws IOException {
+                while (in.isReady() && !in.isFinished()) {
+                    read.write(in.read());
+                }
+            }
+
+            @Override
+            public void onAllDataRead() {
+                allDataRead[0] = true;
+            }
+
+            @Override
+            public void onError(Throwable t) {
+            }
+        });
+
+        assertArrayEquals(request.getContentAsByteArray(), read.toByteArray());
+        assertTrue(allDataRead[0]);
+    }
+
+    @Test
+    void concurrencyCap_ShedsWhileASlotIsTaken() throws Exception {
+        MockHttpServletResponse[] nested = new MockHttpServletResponse[1];
+        FilterChain chain = (request, response) -> nested[0] = login("10.0.0.2", "other");
+
+        filter.doFilter(loginRequest("10.0.0.1", "first"), new MockHttpServletResponse(), chain);
+
+        assertEquals(429, nested[0].getStatus());
+        assertEquals("2", nested[0].getHeader("Retry-After"));
+        assertEquals(1, counter("login", "shed"));
+        assertEquals(200, login("10.0.0.3", "third").getStatus());
+    }
+
+    @Test
+    void otherRoutes_AreNotLimited() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            MockHttpServletRequest request = new MockHttpServletRequest("POST", "/users/refresh");
+            request.setServletPath("/users/refresh");
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            filter.doFilter(request, response, new MockFilterChain());
+            assertEquals(200, response.getStatus());
+        }
+        assertNull(meterRegistry.find("auth.rate.limit.buckets").tags("route", "create-account").gauge());
+    }
+
+    private MockHttpServletResponse login(String ip, String username) throws IOException, ServletException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(loginRequest(ip, username), response, new MockFilterChain());
+        return response;
+    }
+
+    private static MockHttpServletRequest loginRequest(String ip, String username) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/users/login");
+        request.setServletPath("/users/login");
+        request.setRemoteAddr(ip);
+        request.setContentType("application/json");
+        request.setContent(("{\"username\":\"" + username + "\",\"password\":\"pw\"}").getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+
+    private double counter(String route, String result) {
+        return meterRegistry.counter("auth.rate.limit.requests", "route", route, "result", result).count();
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.charactercreation.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+class TokenBucketLimiterTest {
+
+    private final AtomicLong nanos = new AtomicLong(-TimeUnit.SECONDS.toNanos(100));
+
+    private final TokenBucketLimiter limiter = new TokenBucketLimiter(3, Duration.ofSeconds(30), 1000, nanos::get);
+
+    @Test
+    void tryAcquire_AllowsABurstOfCapacityThenReportsTheWait() {
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.tryAcquire("10.0.0.1"));
+        }
+
+        assertEquals(TimeUnit.SECONDS.toNanos(10), limiter.tryAcquire("10.0.0.1"));
+        assertEquals(0, limiter.tryAcquire("10.0.0.2"));
+    }
+
+    @Test
+    void tryAcquire_RefillsOneTokenPerInterval() {
+        for (int i = 0; i < 3; i++) {
+            limiter.tryAcquire("10.0.0.1");
+        }
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(4));
+        // Rejected attempts don't take tokens, so the wait only shrinks.
+        assertEquals(TimeUnit.SECONDS.toNanos(6), limiter.tryAcquire("10.0.0.1"));
+
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(6));
+
+        assertEquals(0, limiter.tryAcquire("10.0.0.1"));
+        assertEquals(TimeUnit.SECONDS.toNanos(10), limiter.tryAcquire("10.0.0.1"));
+    }
+
+    @Test
+    void tryAcquire_IdleBucketIsFullAgainAndEvicted() {
+        limiter.tryAcquire("10.0.0.1");
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(31));
+        limiter.tryAcquire("10.0.0.2");
+
+        assertEquals(1, limiter.bucketCount());
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.tryAcquire("10.0.0.1"));
+        }
+    }
+
+    @Test
+    void parse_ReadsCapacityAndPeriod() {
+        TokenBucketLimiter parsed = TokenBucketLimiter.parse("2/PT1M", 10);
+
+        assertEquals(0, parsed.tryAcquire("user"));
+        assertEquals(0, parsed.tryAcquire("user"));
+        assertEquals(30, TokenBucketLimiter.retryAfterSeconds(parsed.tryAcquire("user")), 1);
+        assertNull(TokenBucketLimiter.parse(" ", 10));
+        assertThrows(IllegalArgumentException.class, () -> TokenBucketLimiter.parse("10", 10));
+    }
+}
@@ -2,17 +2,26 @@ package com.example.charactercreation.controller;
 
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import java.util.ArrayList;
+import java.util.List;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -21,6 +30,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -28,14 +39,18 @@ import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.test.web.servlet.MockMvc;
 
+import com.example.charactercreation.dto.CharacterPage;
 import com.example.charactercreation.dto.CharacterRequest;
 import com.example.charactercreation.dto.CommentRequest;
+import com.example.charactercreation.dto.ExperienceRequest;
 import com.example.charactercreation.model.Character;
 import com.example.charactercreation.service.CharacterService;
 import com.example.charactercreation.service.JwtService;
 import com.example.charactercreation.service.UserDetailsServiceImpl;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import io.micrometer.core.instrument.MeterRegistry;
+
 import jakarta.servlet.ServletException;
 
 @WebMvcTest(CharacterController.class)
@@ -54,6 +69,9 @@ class CharacterControllerTest {
 	@MockBean
 	private UserDetailsServiceImpl userDetailsService;
 
+	@MockBean
+	private MeterRegistry meterRegistry;
+
 	@Autowired
 	private ObjectMapper objectMapper;
 
@@ -98,6 +116,41 @@ class CharacterControllerTest {
 		});
 	}
 
+	@Test
+	void createCharacters_Success() throws Exception {
+		CharacterRequest gandalf = new CharacterRequest();
+		gandalf.setName("Gandalf");
+		CharacterRequest frodo = new CharacterRequest();
+		frodo.setName("Frodo");
+
+		Character first = new Character();
+		first.setId(1L);
+		first.setName("Gandalf");
+		Character second = new Character();
+		second.setId(2L);
+		second.setName("Frodo");
+
+		when(characterService.createCharacters(anyList())).thenReturn(List.of(first, second));
+
+		mockMvc.perform(post("/characters/batch").contentType(MediaType.APPLICATION_JSON)
+				.content(objectMapper.writeValueAsString(List.of(gandalf, frodo)))).andExpect(status().isOk())
+				.andExpect(jsonPath("$[0].name").value("Gandalf")).andExpect(jsonPath("$[1].name").value("Frodo"));
+	}
+
+	@Test
+	void listCharacters_Success() throws Exception {
+		Character character = new Character();
+		character.setId(6L);
+		character.setName("Gandalf");
+
+		when(characterService.listCharacters(eq(5L), eq(1), eq("Mage"), eq(null), eq(null)))
+				.thenReturn(new CharacterPage(List.of(character), 6L));
+
+		mockMvc.perform(get("/characters").param("after", "5").param("size", "1").param("vocation", "Mage"))
+				.andExpect(status().isOk()).andExpect(jsonPath("$.characters[0].name").value("Gandalf"))
+				.andExpect(jsonPath("$.nextCursor").value(6));
+	}
+
 	@Test
 	void editCharacterComment_Success() throws Exception {
 		CommentRequest commentRequest = new CommentRequest();
@@ -108,19 +161,73 @@ class CharacterControllerTest {
 		character.setName("Gandalf");
 		character.setComment("A wizard is never late.");
 
-		when(characterService.editCharacterComment(anyLong(), any(String.class))).thenReturn(character);
+		character.setVersion(4L);
+
+		when(characterService.editCharacterComment(anyLong(), any(String.class), isNull())).thenReturn(character);
 
 		mockMvc.perform(put("/characters/1").contentType(MediaType.APPLICATION_JSON)
 				.content(objectMapper.writeValueAsString(commentRequest))).andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.ETAG, "\"4\""))
 				.andExpect(jsonPath("$.comment").value("A wizard is never late."));
 	}
 
+	@Test
+	void editCharacterComment_IfMatchPassesExpectedVersion() throws Exception {
+		CommentRequest commentRequest = new CommentRequest();
+		commentRequest.setComment("A wizard is never late.");
+		Character character = new Character();
+		character.setId(1L);
+		character.setVersion(4L);
+
+		when(characterService.editCharacterComment(1L, "A wizard is never late.", 3L)).thenReturn(character);
+
+		mockMvc.perform(put("/characters/1").header(HttpHeaders.IF_MATCH, "\"3\"")
+				.contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(commentRequest)))
+				.andExpect(status().isOk()).andExpect(header().string(HttpHeaders.ETAG, "\"4\""));
+	}
+
+	@Test
+	void editCharacterComment_IfMatchStale() throws Exception {
+		CommentRequest commentRequest = new CommentRequest();
+		commentRequest.setComment("A wizard is never late.");
+
+		when(characterService.editCharacterComment(1L, "A wizard is never late.", 3L))
+				.thenThrow(new OptimisticLockingFailureException("Character 1 was modified concurrently."));
+
+		mockMvc.perform(put("/characters/1").header(HttpHeaders.IF_MATCH, "\"3\"")
+				.contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(commentRequest)))
+				.andExpect(status().isPreconditionFailed());
+	}
+
+	@Test
+	void editCharacterComment_ConflictWithoutIfMatch() throws Exception {
+		CommentRequest commentRequest = new CommentRequest();
+		commentRequest.setComment("A wizard is never late.");
+
+		when(characterService.editCharacterComment(1L, "A wizard is never late.", null))
+				.thenThrow(new OptimisticLockingFailureException("Character 1 was modified concurrently."));
+
+		mockMvc.perform(put("/characters/1")
+				.contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(commentRequest)))
+				.andExpect(status().isConflict());
+	}
+
+	@Test
+	void editCharacterComment_RejectsOversizedComment() throws Exception {
+		CommentRequest commentRequest = new CommentRequest();
+		commentRequest.setComment("a".repeat(1025));
+
+		mockMvc.perform(put("/characters/1").contentType(MediaType.APPLICATION_JSON)
+				.content(objectMapper.writeValueAsString(commentRequest))).andExpect(status().isBadRequest());
+		verify(characterService, never()).editCharacterComment(anyLong(), any(), any());
+	}
+
 	@Test
 	void editCharacterComment_CharacterNotFound() throws Exception {
 		CommentRequest commentRequest = new CommentRequest();
 		commentRequest.setComment("A wizard is never late.");
 
-		when(characterService.editCharacterComment(anyLong(), any(String.class)))
+		when(characterService.editCharacterComment(anyLong(), any(String.class), isNull()))
 				.thenThrow(new IllegalArgumentException("Character not found"));
 		Exception exception = assertThrows(ServletException.class, () -> {
 			mockMvc.perform(put("/characters/1").contentType(MediaType.APPLICATION_JSON)
@@ -129,6 +236,18 @@ class CharacterControllerTest {
 		});
 	}
 
+	@Test
+	void awardExperience_RejectsInvalidLevels() throws Exception {
+		for (int levels : new int[] { 0, -1, 1001 }) {
+			ExperienceRequest experienceRequest = new ExperienceRequest();
+			experienceRequest.setLevels(levels);
+
+			mockMvc.perform(post("/characters/1/experience").contentType(MediaType.APPLICATION_JSON)
+					.content(objectMapper.writeValueAsString(experienceRequest))).andExpect(status().isBadRequest());
+		}
+		verify(characterService, never()).awardLevels(anyLong(), anyInt());
+	}
+
 	@Test
 	void markCharacterForDeletion_Success() throws Exception {
 		doNothing().when(characterService).markCharacterForDeletion(anyLong());
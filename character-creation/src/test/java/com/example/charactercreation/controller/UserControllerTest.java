@@ -0,0 +1,95 @@
+package com.example.charactercreation.controller;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import com.example.charactercreation.dto.JwtResponse;
+import com.example.charactercreation.dto.RefreshRequest;
+import com.example.charactercreation.service.AccountService;
+import com.example.charactercreation.service.JwtService;
+import com.example.charactercreation.service.UserDetailsServiceImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+@WebMvcTest(UserController.class)
+@AutoConfigureMockMvc(addFilters = false)
+class UserControllerTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@MockBean
+	private AccountService accountService;
+
+	@MockBean
+	private JwtService jwtService;
+
+	@MockBean
+	private UserDetailsServiceImpl userDetailsService;
+
+	@MockBean
+	private MeterRegistry meterRegistry;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Test
+	void refresh_Success() throws Exception {
+		when(accountService.refresh("valid")).thenReturn(new JwtResponse("jwt", 1000L, "next"));
+
+		mockMvc.perform(refresh("valid")).andExpect(status().isOk()).andExpect(jsonPath("$.token").value("jwt"))
+				.andExpect(jsonPath("$.refreshToken").value("next"));
+	}
+
+	@Test
+	void refresh_ExpiredTokenIsUnauthorized() throws Exception {
+		when(accountService.refresh("expired")).thenThrow(new IllegalArgumentException("Invalid refresh token"));
+
+		mockMvc.perform(refresh("expired")).andExpect(status().isUnauthorized());
+	}
+
+	@Test
+	void refresh_ReusedTokenIsUnauthorized() throws Exception {
+		when(accountService.refresh("used")).thenReturn(new JwtResponse("jwt", 1000L, "next"))
+				.thenThrow(new IllegalArgumentException("Invalid refresh token"));
+
+		mockMvc.perform(refresh("used")).andExpect(status().isOk());
+		mockMvc.perform(refresh("used")).andExpect(status().isUnauthorized());
+	}
+
+	@Test
+	void refresh_MissingTokenIsBadRequest() throws Exception {
+		mockMvc.perform(post("/users/refresh").contentType(MediaType.APPLICATION_JSON).content("{}"))
+				.andExpect(status().isBadRequest());
+		verify(accountService, never()).refresh(any());
+	}
+
+	@Test
+	void logout_MissingTokenIsBadRequest() throws Exception {
+		mockMvc.perform(post("/users/logout").contentType(MediaType.APPLICATION_JSON).content("{}"))
+				.andExpect(status().isBadRequest());
+		verify(accountService, never()).logout(any());
+	}
+
+	private RequestBuilder refresh(String token) throws Exception {
+		RefreshRequest refreshRequest = new RefreshRequest();
+		refreshRequest.setRefreshToken(token);
+		return post("/users/refresh").contentType(MediaType.APPLICATION_JSON)
+				.content(objectMapper.writeValueAsString(refreshRequest));
+	}
+}
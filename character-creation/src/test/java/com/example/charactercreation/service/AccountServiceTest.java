@@ -1,46 +1,79 @@
 package com.example.charactercreation.service;
 
+import com.example.charactercreation.config.ReadWriteRoutingDataSource;
+import com.example.charactercreation.dto.AccountView;
 import com.example.charactercreation.dto.JwtResponse;
 import com.example.charactercreation.model.Account;
 import com.example.charactercreation.repository.AccountRepository;
+import com.example.charactercreation.repository.AccountRepository.AccountCharacterRow;
+import com.example.charactercreation.repository.AccountRepository.AccountRow;
+import com.example.charactercreation.repository.CharacterRepository;
+import com.example.charactercreation.repository.CharacterRepository.CharacterStamp;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
-import org.springframework.boot.test.mock.mockito.MockBean;
+import org.mockito.Spy;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
 import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
 class AccountServiceTest {
 
+    private static final long EXPIRES_AT = 1_700_000_000_000L;
+
     @Mock
     private AccountRepository accountRepository;
 
+    @Mock
+    private CharacterRepository characterRepository;
+
     @Mock
     private BCryptPasswordEncoder passwordEncoder;
 
     @Mock
     private JwtService jwtService;
 
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     @InjectMocks
     private AccountService accountService;
     
-	@MockBean
+	@Mock
 	private UserDetailsServiceImpl userDetailsService;
 
+    @Mock
+    private RefreshTokenService refreshTokenService;
+
+    @Mock
+    private CommentWriteBehindBuffer commentBuffer;
+
+    @Mock
+    private LevelWriteBehindBuffer levelBuffer;
+
+    @Mock
+    private ReadWriteRoutingDataSource routingDataSource;
+
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        when(jwtService.extractExpiration(any())).thenReturn(new Date(EXPIRES_AT));
 		UserDetails userDetails = new User("TEST_USERNAME", "password", new ArrayList<>());
 		UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
 		SecurityContextHolder.getContext().setAuthentication(authentication);
@@ -70,6 +103,8 @@ class AccountServiceTest {
         verify(passwordEncoder, times(1)).encode(password);
         verify(accountRepository, times(1)).save(any(Account.class));
         verify(jwtService, times(1)).generateToken(username);
+        verify(userDetailsService, times(1)).evictPrincipal(username);
+        verify(routingDataSource, times(1)).markRecentWriter(username);
     }
 
     @Test
@@ -99,16 +134,43 @@ class AccountServiceTest {
         when(accountRepository.findByUsername(username)).thenReturn(Optional.of(account));
         when(passwordEncoder.matches(password, encodedPassword)).thenReturn(true);
         when(jwtService.generateToken(username)).thenReturn(token);
+        when(refreshTokenService.issue(username)).thenReturn("refresh-token");
 
         JwtResponse jwtResponse = accountService.login(username, password);
 
         assertNotNull(jwtResponse);
         assertEquals(token, jwtResponse.getToken());
+        assertEquals(EXPIRES_AT, jwtResponse.getExpiresAt());
+        assertEquals("refresh-token", jwtResponse.getRefreshToken());
         verify(accountRepository, times(1)).findByUsername(username);
         verify(passwordEncoder, times(1)).matches(password, encodedPassword);
+        verify(accountRepository, never()).save(any(Account.class));
         verify(jwtService, times(1)).generateToken(username);
     }
 
+    @Test
+    void login_RehashesOutdatedPasswordHash() {
+        String username = "testuser";
+        String password = "password123";
+        String oldHash = "oldCostHash";
+        String newHash = "newCostHash";
+
+        Account account = new Account();
+        account.setUsername(username);
+        account.setPasswordHash(oldHash);
+
+        when(accountRepository.findByUsername(username)).thenReturn(Optional.of(account));
+        when(passwordEncoder.matches(password, oldHash)).thenReturn(true);
+        when(passwordEncoder.upgradeEncoding(oldHash)).thenReturn(true);
+        when(passwordEncoder.encode(password)).thenReturn(newHash);
+
+        accountService.login(username, password);
+
+        assertEquals(newHash, account.getPasswordHash());
+        verify(accountRepository, times(1)).save(account);
+        verify(userDetailsService, times(1)).evictPrincipal(username);
+    }
+
     @Test
     void login_InvalidCredentials_UserNotFound() {
         String username = "testuser";
@@ -138,5 +200,96 @@ class AccountServiceTest {
         assertThrows(IllegalArgumentException.class, () -> accountService.login(username, wrongPassword));
         verify(accountRepository, times(1)).findByUsername(username);
         verify(passwordEncoder, times(1)).matches(wrongPassword, encodedPassword);
+        assertEquals(1, meterRegistry.counter("auth.login", "result", "invalid_credentials").count());
+    }
+
+    @Test
+    void refresh_IssuesTokensWithoutCheckingPassword() {
+        when(refreshTokenService.redeem("old-refresh-token")).thenReturn("testuser");
+        when(jwtService.generateToken("testuser")).thenReturn("test-token");
+        when(refreshTokenService.issue("testuser")).thenReturn("new-refresh-token");
+
+        JwtResponse jwtResponse = accountService.refresh("old-refresh-token");
+
+        assertEquals("test-token", jwtResponse.getToken());
+        assertEquals(EXPIRES_AT, jwtResponse.getExpiresAt());
+        assertEquals("new-refresh-token", jwtResponse.getRefreshToken());
+        verifyNoInteractions(passwordEncoder, accountRepository);
+    }
+
+    @Test
+    void getAccountView_AllFields() {
+        AccountCharacterRow row = mock(AccountCharacterRow.class);
+        when(row.getAccountId()).thenReturn(1L);
+        when(row.getUsername()).thenReturn("testuser");
+        when(row.getCharacterId()).thenReturn(10L);
+        when(row.getName()).thenReturn("Gandalf");
+        when(row.getLevel()).thenReturn(1);
+        when(row.getComment()).thenReturn("A wizard is never late.");
+
+        when(accountRepository.findAccountCharacterRows("testuser")).thenReturn(List.of(row));
+
+        AccountView view = accountService.getAccountView("testuser", null);
+
+        assertEquals("testuser", view.getUsername());
+        assertEquals(1, view.getCharacters().size());
+        assertEquals("A wizard is never late.", view.getCharacters().get(0).getComment());
+        verify(accountRepository, never()).findByUsername(anyString());
+    }
+
+    @Test
+    void getAccountView_WithoutComments() {
+        AccountCharacterRow row = mock(AccountCharacterRow.class);
+        when(row.getAccountId()).thenReturn(1L);
+        when(row.getUsername()).thenReturn("testuser");
+        when(row.getCharacterId()).thenReturn(10L);
+        when(row.getLevel()).thenReturn(1);
+
+        when(accountRepository.findAccountCharacterRowsWithoutComments("testuser")).thenReturn(List.of(row));
+
+        AccountView view = accountService.getAccountView("testuser", Set.of("characters"));
+
+        assertEquals(1, view.getCharacters().size());
+        assertNull(view.getCharacters().get(0).getComment());
+        verify(accountRepository, never()).findAccountCharacterRows(anyString());
+    }
+
+    @Test
+    void getAccountView_WithoutCharacters() {
+        AccountRow row = mock(AccountRow.class);
+        when(row.getAccountId()).thenReturn(1L);
+        when(row.getUsername()).thenReturn("testuser");
+
+        when(accountRepository.findAccountRow("testuser")).thenReturn(Optional.of(row));
+
+        AccountView view = accountService.getAccountView("testuser", Set.of());
+
+        assertEquals(1L, view.getId());
+        assertNull(view.getCharacters());
+        verify(accountRepository, never()).findAccountCharacterRowsWithoutComments(anyString());
+    }
+
+    @Test
+    void getAccountViewETag_ChangesWithCharactersAndFields() {
+        CharacterStamp before = characterStamp(2, 11, 3);
+        CharacterStamp after = characterStamp(2, 11, 4);
+        when(characterRepository.findCharacterStamp("testuser")).thenReturn(before, before, after);
+
+        String full = accountService.getAccountViewETag("testuser", null);
+        String withoutComments = accountService.getAccountViewETag("testuser", Set.of("characters"));
+        String edited = accountService.getAccountViewETag("testuser", null);
+
+        assertNotEquals(full, withoutComments);
+        assertNotEquals(full, edited);
+        assertTrue(full.startsWith("\"") && full.endsWith("\""));
+        verify(accountRepository, never()).findAccountCharacterRows(anyString());
+    }
+
+    private CharacterStamp characterStamp(long count, long maxId, long versionSum) {
+        CharacterStamp stamp = mock(CharacterStamp.class);
+        when(stamp.getCount()).thenReturn(count);
+        when(stamp.getMaxId()).thenReturn(maxId);
+        when(stamp.getVersionSum()).thenReturn(versionSum);
+        return stamp;
     }
-}
\ No newline at end of file
+}
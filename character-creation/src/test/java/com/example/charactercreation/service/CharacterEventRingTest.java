@@ -0,0 +1,42 @@
+package com.example.charactercreation.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.charactercreation.dto.CharacterEvent;
+
+class CharacterEventRingTest {
+
+    private final CharacterEventRing ring = new CharacterEventRing(4);
+
+    @Test
+    void publish_AssignsIncreasingSequencesFromOne() {
+        assertEquals(0, ring.lastSequence());
+
+        assertEquals(1, ring.publish(CharacterEvent.Type.CREATED, 10L, 1L, null));
+        assertEquals(2, ring.publish(CharacterEvent.Type.PURGED, 11L, 1L, null));
+
+        assertEquals(2, ring.lastSequence());
+        assertEquals(11L, ring.get(2).getCharacterId());
+        assertNull(ring.get(3));
+    }
+
+    @Test
+    void get_FailsOnceTheSlotWasReused() {
+        for (long id = 1; id <= 6; id++) {
+            ring.publish(CharacterEvent.Type.CREATED, id, 1L, null);
+        }
+
+        assertEquals(3, ring.oldestSequence());
+        assertEquals(6L, ring.get(6).getCharacterId());
+        assertThrows(CharacterEventRing.OverwrittenException.class, () -> ring.get(2));
+    }
+
+    @Test
+    void constructor_RejectsCapacityThatIsNotAPowerOfTwo() {
+        assertThrows(IllegalArgumentException.class, () -> new CharacterEventRing(6));
+    }
+}
@@ -0,0 +1,198 @@
+package com.example.charactercreation.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.charactercreation.model.Account;
+import com.example.charactercreation.model.Character;
+import com.example.charactercreation.repository.AccountRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+
+// Own database and an evicted second-level cache, for the same reason as in CommentWriteBehindBufferTest.
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:events;DB_CLOSE_DELAY=-1",
+        "characters.events.capacity=8",
+        "characters.events.dispatch-interval=PT0.02S" })
+class CharacterEventStreamTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private CharacterService characterService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private CharacterEventStream eventStream;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @BeforeEach
+    void setUp() {
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void stream_DeliversOnlyTheAccountsOwnChanges() throws Exception {
+        createAccount("streamer");
+        createAccount("bystander");
+        try (BufferedReader events = open("streamer", null)) {
+            Long id = createCharacter("streamer", "Streamed");
+            createCharacter("bystander", "Unrelated");
+            authenticate("streamer");
+            characterService.editCharacterComment(id, "hello", null);
+            characterService.markCharacterForDeletion(id);
+
+            assertEquals(List.of("CREATED", "COMMENT_EDITED", "MARKED_FOR_DELETION"), readEventNames(events, 3));
+        }
+    }
+
+    @Test
+    void stream_ResumesAfterLastEventId() throws Exception {
+        createAccount("resumer");
+        Long id = createCharacter("resumer", "Resumed");
+        authenticate("resumer");
+        characterService.editCharacterComment(id, "first", null);
+        String lastEventId = firstEventId("resumer");
+
+        try (BufferedReader events = open("resumer", lastEventId)) {
+            assertEquals(List.of("COMMENT_EDITED"), readEventNames(events, 1));
+        }
+    }
+
+    @Test
+    void stream_StartsWithResetWhenTheEventsAreGone() throws Exception {
+        createAccount("latecomer");
+        for (int i = 0; i < 10; i++) {
+            createCharacter("latecomer", "Flood" + i);
+        }
+
+        try (BufferedReader events = open("latecomer", "1")) {
+            assertEquals(List.of("reset"), readEventNames(events, 1));
+        }
+    }
+
+    @Test
+    void stream_DropsSlowSubscriber() throws Exception {
+        createAccount("dawdler");
+        Duration sendTimeout = (Duration) ReflectionTestUtils.getField(eventStream, "sendTimeout");
+        ReflectionTestUtils.setField(eventStream, "sendTimeout", Duration.ZERO);
+        try (BufferedReader events = open("dawdler", null)) {
+            createCharacter("dawdler", "Dawdling");
+
+            assertEquals(List.of("CREATED"), readEventNames(events, 1));
+            assertStreamEnds(events);
+            assertEquals(1, meterRegistry.counter("characters.events.disconnects", "reason", "slow").count());
+        } finally {
+            ReflectionTestUtils.setField(eventStream, "sendTimeout", sendTimeout);
+        }
+    }
+
+    private String firstEventId(String username) throws Exception {
+        try (BufferedReader events = open(username, "0")) {
+            String line;
+            while ((line = events.readLine()) != null) {
+                if (line.startsWith("id:")) {
+                    return line.substring(3).trim();
+                }
+            }
+        }
+        throw new AssertionError("No event received");
+    }
+
+    private BufferedReader open(String username, String lastEventId) throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/characters/events"))
+                .header("Authorization", "Bearer " + jwtService.generateToken(username))
+                .timeout(Duration.ofSeconds(10));
+        if (lastEventId != null) {
+            request.header("Last-Event-ID", lastEventId);
+        }
+        HttpResponse<InputStream> response = client.send(request.build(), HttpResponse.BodyHandlers.ofInputStream());
+        assertEquals(200, response.statusCode());
+        return new BufferedReader(new InputStreamReader(response.body(), StandardCharsets.UTF_8));
+    }
+
+    private static void assertStreamEnds(BufferedReader events) {
+        try {
+            String line;
+            while ((line = events.readLine()) != null) {
+                assertFalse(line.startsWith("event:"), "unexpected " + line);
+            }
+        } catch (IOException e) {
+            // An aborted response ends the stream as well.
+        }
+    }
+
+    private static List<String> readEventNames(BufferedReader events, int count) throws IOException {
+        List<String> names = new ArrayList<>();
+        String line;
+        while (names.size() < count && (line = events.readLine()) != null) {
+            if (line.startsWith("event:")) {
+                names.add(line.substring(6).trim());
+            }
+        }
+        assertTrue(names.size() == count, "stream ended after " + names);
+        return names;
+    }
+
+    private void createAccount(String username) {
+        Account account = new Account();
+        account.setUsername(username);
+        account.setPasswordHash("hash");
+        accountRepository.save(account);
+    }
+
+    private Long createCharacter(String username, String name) {
+        authenticate(username);
+        Character character = new Character();
+        character.setName(name);
+        return characterService.createCharacter(character).getId();
+    }
+
+    private static void authenticate(String username) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(username, null, new ArrayList<>()));
+    }
+}
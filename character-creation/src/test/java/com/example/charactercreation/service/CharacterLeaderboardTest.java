@@ -0,0 +1,116 @@
+package com.example.charactercreation.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.example.charactercreation.dto.LeaderboardEntry;
+import com.example.charactercreation.model.Character;
+import com.example.charactercreation.repository.CharacterRepository;
+import com.example.charactercreation.repository.CharacterRepository.LeaderboardRow;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class CharacterLeaderboardTest {
+
+    @Mock
+    private CharacterRepository characterRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private CharacterLeaderboard leaderboard;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        leaderboard.init();
+        when(characterRepository.streamLeaderboardRows()).thenReturn(Stream.of(
+                row(1L, "Aldric", 20, "Knight"),
+                row(2L, "Brienne", 35, "Knight"),
+                row(3L, "Cedric", 20, "Mage"),
+                row(4L, "Dora", 50, null)));
+        leaderboard.afterSingletonsInstantiated();
+    }
+
+    @Test
+    void top_RanksByLevelThenOldestFirst() {
+        assertEquals(List.of(4L, 2L, 1L), ids(leaderboard.top(null, 3)));
+        assertEquals(List.of(2L, 1L), ids(leaderboard.top("Knight", 10)));
+        assertEquals(List.of(), leaderboard.top("Druid", 10));
+        assertEquals(4, meterRegistry.get("characters.leaderboard.entries").gauge().value());
+    }
+
+    @Test
+    void rank_OverallAndWithinVocation() {
+        LeaderboardEntry overall = leaderboard.rank(3L, null).orElseThrow();
+        assertEquals(4, overall.getRank());
+        assertEquals("Cedric", overall.getName());
+        assertEquals(1, leaderboard.rank(3L, "Mage").orElseThrow().getRank());
+        assertTrue(leaderboard.rank(3L, "Knight").isEmpty());
+        assertTrue(leaderboard.rank(99L, null).isEmpty());
+    }
+
+    @Test
+    void updateAndRemove_OutsideATransactionApplyImmediately() {
+        Character leveled = new Character();
+        leveled.setId(1L);
+        leveled.setName("Aldric");
+        leveled.setLevel(40);
+        leveled.setVocation("Knight");
+        leaderboard.updateAfterCommit(List.of(leveled));
+
+        assertEquals(List.of(4L, 1L, 2L, 3L), ids(leaderboard.top(null, 10)));
+        assertEquals(1, leaderboard.rank(1L, "Knight").orElseThrow().getRank());
+
+        leaderboard.removeAfterCommit(List.of(1L, 3L));
+
+        assertEquals(List.of(4L, 2L), ids(leaderboard.top(null, 10)));
+        assertEquals(List.of(), leaderboard.top("Mage", 10));
+        assertEquals(2, leaderboard.rank(2L, null).orElseThrow().getRank());
+    }
+
+    private static List<Long> ids(List<LeaderboardEntry> entries) {
+        return entries.stream().map(LeaderboardEntry::getCharacterId).toList();
+    }
+
+    private static LeaderboardRow row(Long id, String name, int level, String vocation) {
+        return new LeaderboardRow() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public int getLevel() {
+                return level;
+            }
+
+            @Override
+            public String getVocation() {
+                return vocation;
+            }
+        };
+    }
+}
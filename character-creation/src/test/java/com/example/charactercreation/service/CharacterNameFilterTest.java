@@ -0,0 +1,100 @@
+package com.example.charactercreation.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.example.charactercreation.repository.CharacterRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class CharacterNameFilterTest {
+
+    @Mock
+    private CharacterRepository characterRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private CharacterNameFilter nameFilter;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(nameFilter, "expectedInsertions", 1000L);
+        ReflectionTestUtils.setField(nameFilter, "falsePositiveRate", 0.01);
+        nameFilter.init();
+        when(characterRepository.streamNameKeys()).thenReturn(Stream.of("aldric", "brienne"));
+        nameFilter.afterSingletonsInstantiated();
+    }
+
+    @Test
+    void isTaken_UnknownNameSkipsTheDatabase() {
+        assertFalse(nameFilter.isTaken("Cedric"));
+
+        verify(characterRepository, never()).existsByNameKey(anyString());
+        assertEquals(1, meterRegistry.counter("characters.names.filter.checks", "result", "negative").count());
+    }
+
+    @Test
+    void isTaken_KnownNameIsConfirmedByTheDatabaseIgnoringCase() {
+        when(characterRepository.existsByNameKey("aldric")).thenReturn(true);
+
+        assertTrue(nameFilter.isTaken("ALDRIC"));
+
+        verify(characterRepository).existsByNameKey("aldric");
+        assertEquals(1, meterRegistry.counter("characters.names.filter.checks", "result", "true_positive").count());
+    }
+
+    @Test
+    void addAndRemove_OutsideATransactionApplyImmediately() {
+        nameFilter.addAfterCommit(List.of("cedric"));
+        when(characterRepository.existsByNameKey("cedric")).thenReturn(true);
+        assertTrue(nameFilter.isTaken("Cedric"));
+
+        nameFilter.removeAfterCommit(List.of("cedric", "aldric"));
+
+        assertFalse(nameFilter.isTaken("Cedric"));
+        assertFalse(nameFilter.isTaken("Aldric"));
+        when(characterRepository.existsByNameKey("brienne")).thenReturn(true);
+        assertTrue(nameFilter.isTaken("Brienne"));
+    }
+
+    @Test
+    void falsePositiveRate_StaysNearTheConfiguredRate() {
+        for (int i = 0; i < 1000; i++) {
+            nameFilter.addAfterCommit(List.of("taken" + i));
+        }
+        for (int i = 0; i < 10000; i++) {
+            nameFilter.isTaken("free" + i);
+        }
+
+        double expected = meterRegistry.get("characters.names.filter.false.positive.rate").tag("kind", "expected")
+                .gauge().value();
+        double observed = meterRegistry.get("characters.names.filter.false.positive.rate").tag("kind", "observed")
+                .gauge().value();
+        assertTrue(expected > 0.005 && expected < 0.02, "expected rate " + expected);
+        assertTrue(observed < 0.03, "observed rate " + observed);
+    }
+}
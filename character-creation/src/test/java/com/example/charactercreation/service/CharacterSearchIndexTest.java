@@ -0,0 +1,137 @@
+package com.example.charactercreation.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.example.charactercreation.model.Character;
+import com.example.charactercreation.repository.CharacterRepository;
+import com.example.charactercreation.repository.CharacterRepository.SearchText;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class CharacterSearchIndexTest {
+
+    @Mock
+    private CharacterRepository characterRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private CharacterSearchIndex searchIndex;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        MockitoAnnotations.openMocks(this);
+        searchIndex.open();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        searchIndex.close();
+    }
+
+    @Test
+    void afterSingletonsInstantiated_LoadsEveryCharacter() {
+        when(characterRepository.streamSearchText()).thenReturn(Stream.of(
+                searchText(1L, "Alice", null), searchText(2L, "Bob", "Friend of Alice")));
+
+        searchIndex.afterSingletonsInstantiated();
+
+        assertEquals(List.of(1L, 2L), searchIndex.search("alice", 0L, 10));
+        assertEquals(2.0, meterRegistry.get("characters.search.documents").gauge().value());
+    }
+
+    @Test
+    void search_MatchesEveryWordWithPrefixes() {
+        index(1L, "Aldric the Bold", "Guards the northern gate");
+        index(2L, "Alice", "Northern scout");
+        index(3L, "Bob", null);
+        searchIndex.refresh();
+
+        assertEquals(List.of(1L, 2L), searchIndex.search("AL*", 0L, 10));
+        assertEquals(List.of(1L, 2L), searchIndex.search("northern", 0L, 10));
+        assertEquals(List.of(2L), searchIndex.search("ali* north*", 0L, 10));
+        assertEquals(List.of(), searchIndex.search("north", 0L, 10));
+        assertEquals(List.of(), searchIndex.search("  * ", 0L, 10));
+    }
+
+    @Test
+    void search_MatchesShortPrefixesInNamesOnly() {
+        index(1L, "Bob", "A northern scout");
+        index(2L, "Norah", null);
+        index(3L, "Carl", "No comment");
+        searchIndex.refresh();
+
+        assertEquals(List.of(2L, 3L), searchIndex.search("no*", 0L, 10));
+        assertEquals(List.of(1L, 2L), searchIndex.search("nor*", 0L, 10));
+    }
+
+    @Test
+    void search_PagesInIdOrder() {
+        for (long id = 1; id <= 5; id++) {
+            index(id, "Knight " + id, null);
+        }
+        searchIndex.refresh();
+
+        assertEquals(List.of(1L, 2L), searchIndex.search("knight", 0L, 2));
+        assertEquals(List.of(3L, 4L), searchIndex.search("knight", 2L, 2));
+        assertEquals(List.of(5L), searchIndex.search("knight", 4L, 2));
+    }
+
+    @Test
+    void indexAfterCommit_ReplacesAndRemoveDeletes() {
+        index(1L, "Alice", "old comment");
+        index(2L, "Bob", null);
+        index(1L, "Alice", "new comment");
+        searchIndex.removeAfterCommit(List.of(2L));
+        searchIndex.refresh();
+
+        assertEquals(List.of(), searchIndex.search("old", 0L, 10));
+        assertEquals(List.of(1L), searchIndex.search("new", 0L, 10));
+        assertEquals(List.of(), searchIndex.search("bob", 0L, 10));
+    }
+
+    private void index(Long id, String name, String comment) {
+        Character character = new Character();
+        character.setId(id);
+        character.setName(name);
+        character.setComment(comment);
+        searchIndex.indexAfterCommit(character);
+    }
+
+    private static SearchText searchText(Long id, String name, String comment) {
+        return new SearchText() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public String getComment() {
+                return comment;
+            }
+        };
+    }
+}
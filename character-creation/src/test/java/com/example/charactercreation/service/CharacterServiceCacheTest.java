@@ -0,0 +1,207 @@
+package com.example.charactercreation.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.charactercreation.model.Account;
+import com.example.charactercreation.model.Character;
+import com.example.charactercreation.repository.AccountRepository;
+import com.example.charactercreation.repository.CharacterRepository;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Checks that every mutation in {@link CharacterService} leaves the second-level and query caches consistent: each
+ * test warms the caches, mutates, and reads back through the same cached paths.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class CharacterServiceCacheTest {
+
+    private static int accounts;
+
+    @Autowired
+    private CharacterService characterService;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private CharacterRepository characterRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Statistics statistics;
+    private TransactionTemplate transactionTemplate;
+    private String username;
+
+    @BeforeEach
+    void setUp() {
+        username = "cacheuser" + accounts++;
+        Account account = new Account();
+        account.setUsername(username);
+        account.setPasswordHash("hash");
+        accountRepository.save(account);
+        SecurityContextHolder.getContext()
+                .setAuthentication(new UsernamePasswordAuthenticationToken(username, null, new ArrayList<>()));
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void findByUsername_ServedFromNaturalIdCache() {
+        accountRepository.findByUsername(username).orElseThrow();
+        statistics.clear();
+
+        accountRepository.findByUsername(username).orElseThrow();
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(1, statistics.getNaturalIdCacheHitCount());
+    }
+
+    @Test
+    void createCharacter_EvictsCachedCharacters() {
+        assertEquals(List.of(), characterNames());
+        String eTag = accountService.getAccountViewETag(username, null);
+
+        characterService.createCharacter(character("Created"));
+
+        assertEquals(List.of("Created"), characterNames());
+        assertEquals(1, accountRepository.findByUsername(username).orElseThrow().getCharacterCount());
+        assertNotEquals(eTag, accountService.getAccountViewETag(username, null));
+    }
+
+    @Test
+    void createCharacters_EvictsCachedCharacters() {
+        assertEquals(List.of(), characterNames());
+        String eTag = accountService.getAccountViewETag(username, null);
+
+        characterService.createCharacters(List.of(character("First"), character("Second")));
+
+        assertEquals(List.of("First", "Second"), characterNames());
+        assertEquals(2, accountRepository.findByUsername(username).orElseThrow().getCharacterCount());
+        assertNotEquals(eTag, accountService.getAccountViewETag(username, null));
+    }
+
+    @Test
+    void createCharacter_KeepsOtherAccountsCached() {
+        String other = otherAccount();
+        accountRepository.findByUsername(other).orElseThrow();
+
+        characterService.createCharacter(character("Unrelated"));
+        statistics.clear();
+
+        accountRepository.findByUsername(other).orElseThrow();
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void editCharacterComment_UpdatesCachedCharacter() {
+        Long id = characterService.createCharacter(character("Commented")).getId();
+        characterRepository.findById(id).orElseThrow();
+        String eTag = accountService.getAccountViewETag(username, null);
+
+        characterService.editCharacterComment(id, "Updated", null);
+
+        assertEquals("Updated", characterRepository.findById(id).orElseThrow().getComment());
+        statistics.clear();
+        assertEquals("Updated", characterRepository.findById(id).orElseThrow().getComment());
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertNotEquals(eTag, accountService.getAccountViewETag(username, null));
+        assertEquals("Updated", accountService.getAccountView(username, null).getCharacters().get(0).getComment());
+    }
+
+    @Test
+    void markCharacterForDeletion_UpdatesCachedCharacter() {
+        Long id = characterService.createCharacter(character("Marked")).getId();
+        characterRepository.findById(id).orElseThrow();
+        String eTag = accountService.getAccountViewETag(username, null);
+
+        characterService.markCharacterForDeletion(id);
+
+        assertEquals(LocalDate.now().plusDays(30), characterRepository.findById(id).orElseThrow().getDeletionDate());
+        statistics.clear();
+        assertEquals(LocalDate.now().plusDays(30), characterRepository.findById(id).orElseThrow().getDeletionDate());
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertNotEquals(eTag, accountService.getAccountViewETag(username, null));
+    }
+
+    @Test
+    void editCharacterComment_KeepsOtherCachedCharactersAndAccounts() {
+        Long edited = characterService.createCharacter(character("Edited")).getId();
+        Long untouched = characterService.createCharacter(character("Untouched")).getId();
+        characterRepository.findById(untouched).orElseThrow();
+        accountRepository.findByUsername(username).orElseThrow();
+
+        characterService.editCharacterComment(edited, "Updated", null);
+        statistics.clear();
+
+        characterRepository.findById(untouched).orElseThrow();
+        accountRepository.findByUsername(username).orElseThrow();
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void deleteMarkedCharacters_EvictsPurgedCharacters() {
+        Long id = characterService.createCharacter(character("Purged")).getId();
+        transactionTemplate.executeWithoutResult(status -> characterRepository.findById(id).orElseThrow()
+                .setDeletionDate(LocalDate.now().minusDays(1)));
+        assertEquals(List.of("Purged"), characterNames());
+        String eTag = accountService.getAccountViewETag(username, null);
+
+        characterService.deleteMarkedCharacters();
+
+        assertTrue(characterRepository.findById(id).isEmpty());
+        assertEquals(List.of(), characterNames());
+        assertEquals(0, accountRepository.findByUsername(username).orElseThrow().getCharacterCount());
+        assertNotEquals(eTag, accountService.getAccountViewETag(username, null));
+    }
+
+    private String otherAccount() {
+        Account account = new Account();
+        account.setUsername("cacheother" + accounts++);
+        account.setPasswordHash("hash");
+        return accountRepository.save(account).getUsername();
+    }
+
+    // Reads the account's characters through the cached Account.characters collection.
+    private List<String> characterNames() {
+        return transactionTemplate.execute(status -> accountRepository.findByUsername(username).orElseThrow()
+                .getCharacters().stream().map(Character::getName).toList());
+    }
+
+    private static Character character(String name) {
+        Character character = new Character();
+        character.setName(name);
+        return character;
+    }
+}
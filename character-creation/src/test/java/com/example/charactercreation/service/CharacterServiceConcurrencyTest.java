@@ -0,0 +1,85 @@
+package com.example.charactercreation.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import com.example.charactercreation.model.Account;
+import com.example.charactercreation.model.Character;
+import com.example.charactercreation.repository.AccountRepository;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class CharacterServiceConcurrencyTest {
+
+    @Autowired
+    private CharacterService characterService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void createCharacter_LimitHoldsUnderConcurrentCreates() throws Exception {
+        String username = "concurrentuser";
+        Account account = new Account();
+        account.setUsername(username);
+        account.setPasswordHash("hash");
+        accountRepository.save(account);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger created = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            String name = "Char" + i;
+            futures.add(executor.submit(() -> {
+                SecurityContextHolder.getContext()
+                        .setAuthentication(new UsernamePasswordAuthenticationToken(username, null, new ArrayList<>()));
+                try {
+                    start.await();
+                    Character character = new Character();
+                    character.setName(name);
+                    characterService.createCharacter(character);
+                    created.incrementAndGet();
+                } catch (IllegalStateException e) {
+                    rejected.incrementAndGet();
+                } finally {
+                    SecurityContextHolder.clearContext();
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        assertEquals(20, created.get());
+        assertEquals(20, rejected.get());
+        assertEquals(0, statistics.getCollectionLoadCount());
+        assertEquals(20, accountRepository.findByUsername(username).orElseThrow().getCharacterCount());
+    }
+}
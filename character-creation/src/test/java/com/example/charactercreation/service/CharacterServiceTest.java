@@ -4,15 +4,18 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Optional;
@@ -22,15 +25,28 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Pageable;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
 
+import com.example.charactercreation.dto.CharacterEvent;
+import com.example.charactercreation.dto.CharacterPage;
 import com.example.charactercreation.model.Account;
 import com.example.charactercreation.model.Character;
 import com.example.charactercreation.repository.AccountRepository;
 import com.example.charactercreation.repository.CharacterRepository;
+import com.example.charactercreation.repository.CharacterRepository.PurgeCandidate;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
 
 class CharacterServiceTest {
 
@@ -40,12 +56,46 @@ class CharacterServiceTest {
     @Mock
     private AccountRepository accountRepository;
 
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private CommentWriteBehindBuffer commentBuffer;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private CharacterSearchIndex searchIndex;
+
+    @Mock
+    private CharacterNameFilter nameFilter;
+
+    @Mock
+    private CharacterEventStream eventStream;
+
+    @Mock
+    private CharacterLeaderboard leaderboard;
+
+    @Mock
+    private LevelWriteBehindBuffer levelBuffer;
+
+    @Mock
+    private CharacterStatistics statistics;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     @InjectMocks
     private CharacterService characterService;
     
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(characterService, "purgeChunkSize", 500);
+        ReflectionTestUtils.setField(characterService, "purgeTimeBudget", Duration.ofMinutes(5));
+        ReflectionTestUtils.setField(characterService, "defaultPageSize", 2);
+        ReflectionTestUtils.setField(characterService, "maxPageSize", 100);
 		UserDetails userDetails = new User("testuser", "password", new ArrayList<>());
 		UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
 		SecurityContextHolder.getContext().setAuthentication(authentication);
@@ -62,7 +112,8 @@ class CharacterServiceTest {
         character.setName("TestChar");
 
         when(accountRepository.findByUsername(username)).thenReturn(Optional.of(account));
-        when(characterRepository.save(any(Character.class))).thenAnswer(invocation -> {
+        when(accountRepository.reserveCharacterSlots(any(), eq(1), eq(20))).thenReturn(1);
+        when(characterRepository.saveAndFlush(any(Character.class))).thenAnswer(invocation -> {
             Character savedChar = invocation.getArgument(0);
             savedChar.setId(1L);
             return savedChar;
@@ -74,7 +125,28 @@ class CharacterServiceTest {
         assertEquals("TestChar", createdCharacter.getName());
         assertEquals(account, createdCharacter.getAccount());
         verify(accountRepository, times(1)).findByUsername(username);
-        verify(characterRepository, times(1)).save(any(Character.class));
+        verify(characterRepository, times(1)).saveAndFlush(any(Character.class));
+        verify(searchIndex, times(1)).indexAfterCommit(createdCharacter);
+        verify(nameFilter, times(1)).addAfterCommit(List.of("testchar"));
+        verify(eventStream, times(1)).publishCreatedAfterCommit(List.of(createdCharacter));
+        verify(leaderboard, times(1)).updateAfterCommit(List.of(createdCharacter));
+        verify(statistics, times(1)).createdAfterCommit(List.of(createdCharacter));
+    }
+
+    @Test
+    void createCharacter_NameTaken() {
+        Account account = new Account();
+        account.setUsername("testuser");
+
+        Character character = new Character();
+        character.setName("TestChar");
+
+        when(accountRepository.findByUsername("testuser")).thenReturn(Optional.of(account));
+        when(nameFilter.isTaken("TestChar")).thenReturn(true);
+
+        assertThrows(DataIntegrityViolationException.class, () -> characterService.createCharacter(character));
+        verify(accountRepository, never()).reserveCharacterSlots(any(), eq(1), eq(20));
+        verify(characterRepository, never()).saveAndFlush(any(Character.class));
     }
 
     @Test
@@ -86,148 +158,371 @@ class CharacterServiceTest {
 
         assertThrows(NoSuchElementException.class, () -> characterService.createCharacter(character));
         verify(accountRepository, times(1)).findByUsername(username);
-        verify(characterRepository, never()).save(any(Character.class));
+        verify(characterRepository, never()).saveAndFlush(any(Character.class));
     }
 
     @Test
     void createCharacter_MaxCharactersReached() {
+        String username = "testuser";
+        Account account = new Account();
+        account.setId(1L);
+        account.setUsername(username);
+        account.setCharacterCount(20);
+
+        Character character = new Character();
+
+        when(accountRepository.findByUsername(username)).thenReturn(Optional.of(account));
+        when(accountRepository.reserveCharacterSlots(1L, 1, 20)).thenReturn(0);
+
+        assertThrows(IllegalStateException.class, () -> characterService.createCharacter(character));
+        verify(accountRepository, times(1)).findByUsername(username);
+        verify(characterRepository, never()).saveAndFlush(any(Character.class));
+    }
+
+    @Test
+    void createCharacters_Success() {
         String username = "testuser";
         Account account = new Account();
         account.setUsername(username);
+        account.setCharacters(new ArrayList<>());
+
         List<Character> characters = new ArrayList<>();
         for (int i = 0; i < 20; i++) {
             characters.add(new Character());
         }
-        account.setCharacters(characters);
-
-        Character character = new Character();
 
         when(accountRepository.findByUsername(username)).thenReturn(Optional.of(account));
+        when(accountRepository.reserveCharacterSlots(any(), eq(20), eq(20))).thenReturn(1);
+        when(characterRepository.saveAll(characters)).thenReturn(characters);
 
-        assertThrows(IllegalStateException.class, () -> characterService.createCharacter(character));
+        List<Character> createdCharacters = characterService.createCharacters(characters);
+
+        assertEquals(20, createdCharacters.size());
+        createdCharacters.forEach(character -> assertEquals(account, character.getAccount()));
         verify(accountRepository, times(1)).findByUsername(username);
-        verify(characterRepository, never()).save(any(Character.class));
+        verify(characterRepository, times(1)).saveAll(characters);
+        verify(characterRepository, times(1)).flush();
     }
 
     @Test
-    void editCharacterComment_Success() {
+    void createCharacters_SameNameTwiceInBatch() {
+        Account account = new Account();
+        account.setUsername("testuser");
+
+        Character first = new Character();
+        first.setName("Twin");
+        Character second = new Character();
+        second.setName("TWIN");
+
+        when(accountRepository.findByUsername("testuser")).thenReturn(Optional.of(account));
+
+        assertThrows(DataIntegrityViolationException.class,
+                () -> characterService.createCharacters(List.of(first, second)));
+        verify(characterRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void createCharacters_BatchExceedsLimit() {
         String username = "testuser";
-        Long characterId = 1L;
-        String newComment = "New comment";
         Account account = new Account();
+        account.setId(1L);
         account.setUsername(username);
-        Character character = new Character();
-        character.setId(characterId);
-        character.setComment("Old comment");
-        character.setAccount(account);
+        account.setCharacterCount(15);
+
+        List<Character> characters = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            characters.add(new Character());
+        }
+
+        when(accountRepository.findByUsername(username)).thenReturn(Optional.of(account));
+        when(accountRepository.reserveCharacterSlots(1L, 6, 20)).thenReturn(0);
+
+        assertThrows(IllegalStateException.class, () -> characterService.createCharacters(characters));
+        verify(characterRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void listCharacters_ReturnsCursorWhenMoreRowsExist() {
+        List<Character> rows = new ArrayList<>();
+        for (long id = 11; id <= 13; id++) {
+            Character character = ownedBy("testuser");
+            character.setId(id);
+            rows.add(character);
+        }
+
+        when(characterRepository.findPage(eq("testuser"), eq(10L), eq(null), eq(null), eq(null), any(Pageable.class)))
+                .thenReturn(rows);
 
+        CharacterPage page = characterService.listCharacters(10L, null, null, null, null);
+
+        assertEquals(2, page.getCharacters().size());
+        assertEquals(12L, page.getNextCursor());
+        verify(characterRepository, times(1)).findPage(eq("testuser"), eq(10L), eq(null), eq(null), eq(null),
+                argThat(pageable -> pageable.getPageSize() == 3));
+    }
+
+    @Test
+    void listCharacters_LastPageHasNoCursor() {
+        Character character = ownedBy("testuser");
+
+        when(characterRepository.findPage(eq("testuser"), eq(0L), eq("Mage"), eq(null), eq(true), any(Pageable.class)))
+                .thenReturn(List.of(character));
+
+        CharacterPage page = characterService.listCharacters(null, 5, "Mage", null, true);
+
+        assertEquals(1, page.getCharacters().size());
+        assertEquals(null, page.getNextCursor());
+    }
+
+    @Test
+    void getLeaderboard_ClampsLimit() {
+        ReflectionTestUtils.setField(characterService, "defaultLeaderboardLimit", 10);
+        ReflectionTestUtils.setField(characterService, "maxLeaderboardLimit", 100);
+
+        characterService.getLeaderboard("Mage", null);
+        characterService.getLeaderboard(null, 1000);
+        characterService.getLeaderboard(null, 0);
+
+        verify(leaderboard).top("Mage", 10);
+        verify(leaderboard).top(null, 100);
+        verify(leaderboard).top(null, 1);
+    }
+
+    @Test
+    void searchCharacters_ReturnsPageInIdOrderWithCursor() {
+        Character first = ownedBy("testuser");
+        first.setId(4L);
+        Character second = ownedBy("testuser");
+        second.setId(7L);
+
+        when(searchIndex.search("ali*", 0L, 3)).thenReturn(List.of(4L, 7L, 9L));
+        when(characterRepository.findAllById(List.of(4L, 7L, 9L))).thenReturn(List.of(second, first));
+
+        CharacterPage page = characterService.searchCharacters("ali*", null, 2);
+
+        assertEquals(List.of(first, second), page.getCharacters());
+        assertEquals(7L, page.getNextCursor());
+    }
+
+    @Test
+    void editCharacterComment_Success() {
+        Long characterId = 1L;
+        String newComment = "New comment";
+        Character character = ownedBy("testuser");
+        character.setComment(newComment);
+
+        when(characterRepository.updateComment(characterId, "testuser", newComment, null)).thenReturn(1);
         when(characterRepository.findById(characterId)).thenReturn(Optional.of(character));
-        when(characterRepository.save(any(Character.class))).thenReturn(character);
 
-        Character updatedCharacter = characterService.editCharacterComment(characterId, newComment);
+        Character updatedCharacter = characterService.editCharacterComment(characterId, newComment, null);
 
-        assertNotNull(updatedCharacter);
         assertEquals(newComment, updatedCharacter.getComment());
-        verify(characterRepository, times(1)).findById(characterId);
-        verify(characterRepository, times(1)).save(any(Character.class));
+        verify(characterRepository, never()).save(any(Character.class));
+        verify(eventStream, times(1)).publishAfterCommit(CharacterEvent.Type.COMMENT_EDITED, character);
     }
 
     @Test
     void editCharacterComment_CharacterNotFound() {
-        String username = "testuser";
         Long characterId = 1L;
-        String newComment = "New comment";
 
+        when(characterRepository.updateComment(characterId, "testuser", "New comment", null)).thenReturn(0);
         when(characterRepository.findById(characterId)).thenReturn(Optional.empty());
 
-        assertThrows(IllegalArgumentException.class, () -> characterService.editCharacterComment(characterId, newComment));
-        verify(characterRepository, times(1)).findById(characterId);
-        verify(characterRepository, never()).save(any(Character.class));
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> characterService.editCharacterComment(characterId, "New comment", null));
+        assertEquals("Character not found", e.getMessage());
     }
 
     @Test
     void editCharacterComment_CharacterDoesNotBelongToUser() {
-        String username = "testuser";
         Long characterId = 1L;
-        String newComment = "New comment";
-        Account otherAccount = new Account();
-        otherAccount.setUsername("otheruser");
-        Character character = new Character();
-        character.setId(characterId);
-        character.setAccount(otherAccount);
+        Character character = ownedBy("otheruser");
 
+        when(characterRepository.updateComment(characterId, "testuser", "New comment", null)).thenReturn(0);
         when(characterRepository.findById(characterId)).thenReturn(Optional.of(character));
 
-        assertThrows(IllegalArgumentException.class, () -> characterService.editCharacterComment(characterId, newComment));
-        verify(characterRepository, times(1)).findById(characterId);
-        verify(characterRepository, never()).save(any(Character.class));
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> characterService.editCharacterComment(characterId, "New comment", null));
+        assertEquals("Character does not belong to the authenticated user.", e.getMessage());
+    }
+
+    @Test
+    void editCharacterComment_VersionMismatch() {
+        Long characterId = 1L;
+        Character character = ownedBy("testuser");
+        character.setVersion(4L);
+
+        when(characterRepository.updateComment(characterId, "testuser", "New comment", 3L)).thenReturn(0);
+        when(characterRepository.findById(characterId)).thenReturn(Optional.of(character));
+
+        assertThrows(OptimisticLockingFailureException.class,
+                () -> characterService.editCharacterComment(characterId, "New comment", 3L));
+        verify(eventStream, never()).publishAfterCommit(any(), any());
+    }
+
+    @Test
+    void editCharacterComment_WriteBehindBuffersDetachedCharacter() {
+        Character character = ownedBy("testuser");
+        character.setComment("Old comment");
+
+        when(commentBuffer.isEnabled()).thenReturn(true);
+        when(commentBuffer.hasRoom(1L)).thenReturn(true);
+        when(characterRepository.findById(1L)).thenReturn(Optional.of(character));
+
+        Character updatedCharacter = characterService.editCharacterComment(1L, "New comment", null);
+
+        assertEquals("New comment", updatedCharacter.getComment());
+        verify(entityManager).detach(character);
+        verify(commentBuffer).putAfterCommit(1L, "testuser", "New comment");
+    }
+
+    @Test
+    void editCharacterComment_WriteBehindConditionalEditFailsWhilePending() {
+        Character character = ownedBy("testuser");
+
+        when(commentBuffer.isEnabled()).thenReturn(true);
+        when(commentBuffer.get(1L)).thenReturn(new CommentWriteBehindBuffer.PendingComment("testuser", "Pending", 1));
+        when(characterRepository.findById(1L)).thenReturn(Optional.of(character));
+
+        assertThrows(OptimisticLockingFailureException.class,
+                () -> characterService.editCharacterComment(1L, "New comment", 0L));
+        verify(characterRepository, never()).updateComment(any(), any(), any(), any());
     }
 
     @Test
     void markCharacterForDeletion_Success() {
-        String username = "testuser";
         Long characterId = 1L;
-        Account account = new Account();
-        account.setUsername(username);
-        Character character = new Character();
-        character.setId(characterId);
-        character.setAccount(account);
+        LocalDate deletionDate = LocalDate.now().plusDays(30);
+        Character character = ownedBy("testuser");
 
+        when(characterRepository.updateDeletionDate(characterId, "testuser", deletionDate, true)).thenReturn(1);
         when(characterRepository.findById(characterId)).thenReturn(Optional.of(character));
-        when(characterRepository.save(any(Character.class))).thenReturn(character);
 
         characterService.markCharacterForDeletion(characterId);
 
-        assertNotNull(character.getDeletionDate());
-        verify(characterRepository, times(1)).findById(characterId);
-        verify(characterRepository, times(1)).save(any(Character.class));
+        verify(characterRepository, never()).updateDeletionDate(characterId, "testuser", deletionDate, false);
+        verify(characterRepository, never()).save(any(Character.class));
+        verify(eventStream, times(1)).publishAfterCommit(CharacterEvent.Type.MARKED_FOR_DELETION, character);
+        verify(statistics, times(1)).markedForDeletionAfterCommit();
+    }
+
+    @Test
+    void markCharacterForDeletion_AlreadyMarkedIsNotCountedAgain() {
+        LocalDate deletionDate = LocalDate.now().plusDays(30);
+
+        when(characterRepository.updateDeletionDate(1L, "testuser", deletionDate, true)).thenReturn(0);
+        when(characterRepository.updateDeletionDate(1L, "testuser", deletionDate, false)).thenReturn(1);
+        when(characterRepository.findById(1L)).thenReturn(Optional.of(ownedBy("testuser")));
+
+        characterService.markCharacterForDeletion(1L);
+
+        verify(characterRepository, times(1)).updateDeletionDate(1L, "testuser", deletionDate, false);
+        verify(statistics, never()).markedForDeletionAfterCommit();
+    }
+
+    @Test
+    void awardLevels_BuffersLevelsAndReturnsThemMerged() {
+        Character character = ownedBy("testuser");
+        character.setLevel(3);
+
+        when(characterRepository.findById(1L)).thenReturn(Optional.of(character));
+        when(levelBuffer.get(1L, "testuser")).thenReturn(5L);
+
+        Character awarded = characterService.awardLevels(1L, 2);
+
+        assertEquals(8, awarded.getLevel());
+        verify(levelBuffer, times(1)).add(1L, "testuser", 2);
+        verify(entityManager, times(1)).detach(character);
+        verify(characterRepository, never()).save(any(Character.class));
+    }
+
+    @Test
+    void awardLevels_RejectsNonPositiveLevels() {
+        assertThrows(IllegalArgumentException.class, () -> characterService.awardLevels(1L, 0));
+
+        verify(levelBuffer, never()).add(any(), any(), anyInt());
     }
 
     @Test
     void markCharacterForDeletion_CharacterNotFound() {
-        String username = "testuser";
         Long characterId = 1L;
 
         when(characterRepository.findById(characterId)).thenReturn(Optional.empty());
 
-        assertThrows(IllegalArgumentException.class, () -> characterService.markCharacterForDeletion(characterId));
-        verify(characterRepository, times(1)).findById(characterId);
-        verify(characterRepository, never()).save(any(Character.class));
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> characterService.markCharacterForDeletion(characterId));
+        assertEquals("Character not found", e.getMessage());
+        verify(statistics, never()).markedForDeletionAfterCommit();
     }
 
     @Test
     void markCharacterForDeletion_CharacterDoesNotBelongToUser() {
-        String username = "testuser";
         Long characterId = 1L;
-        Account otherAccount = new Account();
-        otherAccount.setUsername("otheruser");
-        Character character = new Character();
-        character.setId(characterId);
-        character.setAccount(otherAccount);
+        Character character = ownedBy("otheruser");
 
         when(characterRepository.findById(characterId)).thenReturn(Optional.of(character));
 
-        assertThrows(IllegalArgumentException.class, () -> characterService.markCharacterForDeletion(characterId));
-        verify(characterRepository, times(1)).findById(characterId);
-        verify(characterRepository, never()).save(any(Character.class));
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> characterService.markCharacterForDeletion(characterId));
+        assertEquals("Character does not belong to the authenticated user.", e.getMessage());
+        verify(eventStream, never()).publishAfterCommit(any(), any());
     }
 
     @Test
     void deleteMarkedCharacters() {
-        Character char1 = new Character();
-        char1.setId(1L);
-        char1.setDeletionDate(LocalDate.now().minusDays(1));
+        PurgeCandidate candidate = purgeCandidate(1L, 1L);
 
-        Character char2 = new Character();
-        char2.setId(2L);
-        char2.setDeletionDate(LocalDate.now().plusDays(1));
+        when(characterRepository.findPurgeCandidates(eq(LocalDate.now()), any(Pageable.class)))
+                .thenReturn(List.of(candidate));
+        when(characterRepository.deleteByIdIn(List.of(1L))).thenReturn(1);
 
-        when(characterRepository.findByDeletionDateBefore(LocalDate.now()))
-                .thenReturn(Arrays.asList(char1));
+        characterService.deleteMarkedCharacters();
+
+        verify(characterRepository, times(1)).findPurgeCandidates(eq(LocalDate.now()), any(Pageable.class));
+        verify(accountRepository, times(1)).releaseCharacterSlots(1L, 1);
+        verify(characterRepository, times(1)).deleteByIdIn(List.of(1L));
+        verify(searchIndex, times(1)).removeAfterCommit(List.of(1L));
+        verify(nameFilter, times(1)).removeAfterCommit(List.of("character1"));
+        verify(eventStream, times(1)).publishPurgedAfterCommit(List.of(candidate));
+        verify(leaderboard, times(1)).removeAfterCommit(List.of(1L));
+        verify(statistics, times(1)).purgedAfterCommit(List.of(candidate));
+        assertEquals(1, meterRegistry.counter("characters.purge.rows").count());
+    }
+
+    @Test
+    void deleteMarkedCharacters_PurgesInChunks() {
+        ReflectionTestUtils.setField(characterService, "purgeChunkSize", 2);
+        List<PurgeCandidate> firstChunk = List.of(purgeCandidate(1L, 1L), purgeCandidate(2L, 2L));
+        List<PurgeCandidate> secondChunk = List.of(purgeCandidate(3L, 1L));
+
+        when(characterRepository.findPurgeCandidates(eq(LocalDate.now()), any(Pageable.class)))
+                .thenReturn(firstChunk, secondChunk);
+        when(characterRepository.deleteByIdIn(List.of(1L, 2L))).thenReturn(2);
+        when(characterRepository.deleteByIdIn(List.of(3L))).thenReturn(1);
+        when(characterRepository.countByDeletionDateBefore(LocalDate.now())).thenReturn(0L);
 
         characterService.deleteMarkedCharacters();
 
-        verify(characterRepository, times(1)).findByDeletionDateBefore(LocalDate.now());
-        verify(characterRepository, times(1)).deleteAll(argThat(list -> ((java.util.List<Character>) list).size() == 1 && ((java.util.List<Character>) list).contains(char1)));
+        verify(characterRepository, times(2)).findPurgeCandidates(eq(LocalDate.now()), any(Pageable.class));
+        verify(accountRepository, times(2)).releaseCharacterSlots(1L, 1);
+        verify(accountRepository, times(1)).releaseCharacterSlots(2L, 1);
+        assertEquals(3, meterRegistry.counter("characters.purge.rows").count());
+    }
+
+    private PurgeCandidate purgeCandidate(Long id, Long accountId) {
+        PurgeCandidate candidate = mock(PurgeCandidate.class);
+        when(candidate.getId()).thenReturn(id);
+        when(candidate.getAccountId()).thenReturn(accountId);
+        when(candidate.getNameKey()).thenReturn("character" + id);
+        return candidate;
+    }
+
+    private Character ownedBy(String username) {
+        Account account = new Account();
+        account.setUsername(username);
+        Character character = new Character();
+        character.setId(1L);
+        character.setAccount(account);
+        return character;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,153 @@
+package com.example.charactercreation.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.example.charactercreation.dto.CharacterStats;
+import com.example.charactercreation.model.Character;
+import com.example.charactercreation.repository.CharacterRepository;
+import com.example.charactercreation.repository.CharacterRepository.CharacterCount;
+import com.example.charactercreation.repository.CharacterRepository.PurgeCandidate;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class CharacterStatisticsTest {
+
+    @Mock
+    private CharacterRepository characterRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private CharacterStatistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        statistics.init();
+        when(characterRepository.countCharacters()).thenReturn(List.of(
+                count("Mage", "Sorcerer", false, 3),
+                count("Mage", "Druid", true, 1),
+                count("Knight", "Sorcerer", false, 2),
+                count(null, null, false, 1)));
+        statistics.afterSingletonsInstantiated();
+    }
+
+    @Test
+    void snapshot_CountsLoadedAtStartup() {
+        CharacterStats stats = statistics.snapshot();
+
+        assertEquals(7, stats.getTotal());
+        assertEquals(1, stats.getPendingDeletion());
+        assertEquals(Map.of("Knight", 2L, "Mage", 4L), stats.getByVocation());
+        assertEquals(Map.of("Druid", 1L, "Sorcerer", 5L), stats.getByCharacterClass());
+    }
+
+    @Test
+    void changes_OutsideATransactionApplyImmediately() {
+        statistics.createdAfterCommit(List.of(character("Paladin", "Sorcerer")));
+        statistics.markedForDeletionAfterCommit();
+        statistics.purgedAfterCommit(List.of(purgeCandidate("Mage", "Druid")));
+
+        CharacterStats stats = statistics.snapshot();
+        assertEquals(7, stats.getTotal());
+        assertEquals(1, stats.getPendingDeletion());
+        assertEquals(Map.of("Knight", 2L, "Mage", 3L, "Paladin", 1L), stats.getByVocation());
+        assertEquals(Map.of("Sorcerer", 6L), stats.getByCharacterClass());
+    }
+
+    @Test
+    void reconcile_ReplacesDriftedCountsAndKeepsChangesMadeMeanwhile() {
+        statistics.createdAfterCommit(List.of(character("Paladin", "Sorcerer")));
+        when(characterRepository.countCharacters()).thenAnswer(invocation -> {
+            // Committed after the count's snapshot, so only the recorded adjustment carries it.
+            statistics.createdAfterCommit(List.of(character("Knight", "Druid")));
+            return List.of(count("Mage", "Sorcerer", false, 3));
+        });
+
+        statistics.reconcile();
+
+        CharacterStats stats = statistics.snapshot();
+        assertEquals(4, stats.getTotal());
+        assertEquals(0, stats.getPendingDeletion());
+        assertEquals(Map.of("Knight", 1L, "Mage", 3L), stats.getByVocation());
+        assertEquals(Map.of("Druid", 1L, "Sorcerer", 3L), stats.getByCharacterClass());
+        assertEquals(5 + 1 + 4 + 4, meterRegistry.counter("characters.stats.reconcile.drift").count());
+    }
+
+    private static Character character(String vocation, String characterClass) {
+        Character character = new Character();
+        character.setVocation(vocation);
+        character.setCharacterClass(characterClass);
+        return character;
+    }
+
+    private static PurgeCandidate purgeCandidate(String vocation, String characterClass) {
+        return new PurgeCandidate() {
+            @Override
+            public Long getId() {
+                return 1L;
+            }
+
+            @Override
+            public Long getAccountId() {
+                return 1L;
+            }
+
+            @Override
+            public String getNameKey() {
+                return "purged";
+            }
+
+            @Override
+            public String getVocation() {
+                return vocation;
+            }
+
+            @Override
+            public String getCharacterClass() {
+                return characterClass;
+            }
+        };
+    }
+
+    private static CharacterCount count(String vocation, String characterClass, boolean pendingDeletion, long count) {
+        return new CharacterCount() {
+            @Override
+            public String getVocation() {
+                return vocation;
+            }
+
+            @Override
+            public String getCharacterClass() {
+                return characterClass;
+            }
+
+            @Override
+            public boolean getPendingDeletion() {
+                return pendingDeletion;
+            }
+
+            @Override
+            public long getCount() {
+                return count;
+            }
+        };
+    }
+}
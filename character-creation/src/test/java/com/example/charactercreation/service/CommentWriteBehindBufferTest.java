@@ -0,0 +1,177 @@
+package com.example.charactercreation.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.ArrayList;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.charactercreation.model.Account;
+import com.example.charactercreation.model.Character;
+import com.example.charactercreation.repository.AccountRepository;
+
+import jakarta.persistence.EntityManagerFactory;
+
+// Own database and an evicted second-level cache: the JCache regions are shared by every test context in the JVM,
+// so entries cached by other contexts would otherwise shadow the recreated rows with the same ids.
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:write-behind;DB_CLOSE_DELAY=-1",
+        "characters.comments.write-behind.enabled=true",
+        "characters.comments.write-behind.flush-interval=PT1H" })
+class CommentWriteBehindBufferTest {
+
+    @Autowired
+    private CharacterService characterService;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private CommentWriteBehindBuffer commentBuffer;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ConfigurableApplicationContext context;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void editCharacterComment_CoalescesEditsUntilFlushed() {
+        Long id = createCharacter("writebehinduser", "Buffered");
+        String eTagBefore = accountService.getAccountViewETag("writebehinduser", null);
+
+        characterService.editCharacterComment(id, "first", null);
+        characterService.editCharacterComment(id, "second", null);
+
+        assertNull(jdbcTemplate.queryForObject("select comment from character where id = ?", String.class, id));
+        assertEquals("second", characterService.listCharacters(null, null, null, null, null).getCharacters().get(0)
+                .getComment());
+        assertEquals("second", accountService.getAccountView("writebehinduser", null).getCharacters().get(0)
+                .getComment());
+        String eTagPending = accountService.getAccountViewETag("writebehinduser", null);
+        assertNotEquals(eTagBefore, eTagPending);
+
+        commentBuffer.flushAll();
+
+        assertNull(commentBuffer.get(id));
+        assertEquals("second", jdbcTemplate.queryForObject("select comment from character where id = ?", String.class,
+                id));
+        assertEquals(1L, jdbcTemplate.queryForObject("select version from character where id = ?", Long.class, id));
+        assertEquals("second", accountService.getAccountView("writebehinduser", null).getCharacters().get(0)
+                .getComment());
+        String eTagFlushed = accountService.getAccountViewETag("writebehinduser", null);
+        assertNotEquals(eTagBefore, eTagFlushed);
+        assertNotEquals(eTagPending, eTagFlushed);
+    }
+
+    @Test
+    void editCharacterComment_BuffersNothingWhenTransactionRollsBack() {
+        Long id = createCharacter("rollbackuser", "RolledBack");
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            characterService.editCharacterComment(id, "never committed", null);
+            status.setRollbackOnly();
+        });
+
+        assertNull(commentBuffer.get(id));
+    }
+
+    @Test
+    void editCharacterComment_WritesDirectlyWhenBufferIsFull() {
+        Long waiting = createCharacter("fullbufferuser", "Waiting");
+        Long direct = createCharacter("fullbufferuser", "Direct");
+        commentBuffer.put(waiting, "fullbufferuser", "pending");
+        ReflectionTestUtils.setField(commentBuffer, "maxPending", 1);
+        try {
+            characterService.editCharacterComment(direct, "written", null);
+        } finally {
+            ReflectionTestUtils.setField(commentBuffer, "maxPending", 10000);
+        }
+
+        assertNull(commentBuffer.get(direct));
+        assertEquals("written", jdbcTemplate.queryForObject("select comment from character where id = ?",
+                String.class, direct));
+    }
+
+    @Test
+    void flushAll_WritesOtherEditsWhenBatchFailsAndDropsEditAfterMaxAttempts() {
+        Long good = createCharacter("failingbatchuser", "Good");
+        Long bad = createCharacter("failingbatchuser", "Bad");
+        commentBuffer.put(good, "failingbatchuser", "fits");
+        // Bypasses the request validation, like an edit of a column that was narrowed while it was pending.
+        commentBuffer.put(bad, "failingbatchuser", "a".repeat(1025));
+
+        commentBuffer.flushAll();
+
+        assertEquals("fits", jdbcTemplate.queryForObject("select comment from character where id = ?", String.class,
+                good));
+        assertNull(commentBuffer.get(good));
+        assertNotNull(commentBuffer.get(bad));
+
+        commentBuffer.flushAll();
+        commentBuffer.flushAll();
+
+        assertNull(commentBuffer.get(bad));
+        assertNull(jdbcTemplate.queryForObject("select comment from character where id = ?", String.class, bad));
+    }
+
+    @Test
+    @DirtiesContext
+    void destroy_FlushesPendingEdits() {
+        Long id = createCharacter("shutdownuser", "Pending");
+        commentBuffer.put(id, "shutdownuser", "flushed on close");
+
+        context.getAutowireCapableBeanFactory().destroyBean(commentBuffer);
+
+        assertEquals("flushed on close", jdbcTemplate.queryForObject("select comment from character where id = ?",
+                String.class, id));
+    }
+
+    private Long createCharacter(String username, String name) {
+        if (accountRepository.findByUsername(username).isEmpty()) {
+            Account account = new Account();
+            account.setUsername(username);
+            account.setPasswordHash("hash");
+            accountRepository.save(account);
+        }
+        SecurityContextHolder.getContext()
+                .setAuthentication(new UsernamePasswordAuthenticationToken(username, null, new ArrayList<>()));
+        Character character = new Character();
+        character.setName(name);
+        return characterService.createCharacter(character).getId();
+    }
+}
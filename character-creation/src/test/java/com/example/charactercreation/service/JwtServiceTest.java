@@ -0,0 +1,102 @@
+package com.example.charactercreation.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.SignatureException;
+
+class JwtServiceTest {
+
+    private static final String SECRET = "MzJieXRlc2VjcmV0a2V5Zm9yand0c2lnbmluZzEyMzQ1Ng==";
+    private static final String NEXT_SECRET = "YW5vdGhlcjMyYnl0ZXNlY3JldGtleWZvcmp3dHNpZ25pbmc=";
+
+    private JwtService jwtService;
+
+    @BeforeEach
+    void setUp() {
+        jwtService = jwtService("k1", SECRET, "");
+    }
+
+    private static JwtService jwtService(String keyId, String secret, String verificationKeys) {
+        JwtService service = new JwtService();
+        ReflectionTestUtils.setField(service, "secret", secret);
+        ReflectionTestUtils.setField(service, "keyId", keyId);
+        ReflectionTestUtils.setField(service, "verificationKeys", verificationKeys);
+        ReflectionTestUtils.setField(service, "accessTokenTtl", Duration.ofMinutes(10));
+        ReflectionTestUtils.setField(service, "claimsCacheMaxSize", 100L);
+        service.init();
+        return service;
+    }
+
+    @Test
+    void validateToken_ParsesTokenOnlyOnce() {
+        String token = jwtService.generateToken("testuser");
+        UserDetails userDetails = new User("testuser", "password", new ArrayList<>());
+
+        assertEquals("testuser", jwtService.extractUsername(token));
+        assertTrue(jwtService.validateToken(token, userDetails));
+
+        assertEquals(1, jwtService.getClaimsCacheStats().missCount());
+        assertEquals(1, jwtService.getClaimsCacheStats().hitCount());
+    }
+
+    @Test
+    void validateToken_WrongUser() {
+        String token = jwtService.generateToken("testuser");
+        UserDetails otherUser = new User("otheruser", "password", new ArrayList<>());
+
+        assertFalse(jwtService.validateToken(token, otherUser));
+    }
+
+    @Test
+    void extractAllClaims_TamperedTokenIsNotCached() {
+        String token = jwtService.generateToken("testuser");
+        String tampered = token.substring(0, token.length() - 2) + "xx";
+
+        assertThrows(JwtException.class, () -> jwtService.extractAllClaims(tampered));
+        assertThrows(JwtException.class, () -> jwtService.extractAllClaims(tampered));
+        assertEquals(2, jwtService.getClaimsCacheStats().missCount());
+    }
+
+    @Test
+    void extractAllClaims_AcceptsTokensSignedWithRetiredKey() {
+        String oldToken = jwtService.generateToken("testuser");
+        JwtService rotated = jwtService("k2", NEXT_SECRET, "k1:" + SECRET);
+
+        assertEquals("testuser", rotated.extractUsername(oldToken));
+        assertEquals("testuser", rotated.extractUsername(rotated.generateToken("testuser")));
+    }
+
+    @Test
+    void extractAllClaims_RejectsUnknownKeyId() {
+        String token = jwtService("k3", NEXT_SECRET, "").generateToken("testuser");
+
+        assertThrows(SignatureException.class, () -> jwtService.extractAllClaims(token));
+    }
+
+    @Test
+    void extractAllClaims_AcceptsTokensWithoutKeyId() {
+        String legacyToken = Jwts.builder()
+                .setSubject("testuser")
+                .setExpiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(SignatureAlgorithm.HS256, SECRET)
+                .compact();
+
+        assertEquals("testuser", jwtService.extractUsername(legacyToken));
+    }
+}
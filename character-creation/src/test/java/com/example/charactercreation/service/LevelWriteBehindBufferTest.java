@@ -0,0 +1,168 @@
+package com.example.charactercreation.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import java.util.ArrayList;
+import java.util.Set;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import com.example.charactercreation.model.Account;
+import com.example.charactercreation.model.Character;
+import com.example.charactercreation.repository.AccountRepository;
+import com.example.charactercreation.repository.CharacterRepository;
+
+import jakarta.persistence.EntityManagerFactory;
+
+// Own database and an evicted second-level cache, as in CommentWriteBehindBufferTest.
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:levels;DB_CLOSE_DELAY=-1",
+        "characters.levels.flush-interval=PT1H" })
+class LevelWriteBehindBufferTest {
+
+    @Autowired
+    private CharacterService characterService;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private CharacterRepository characterRepository;
+
+    @Autowired
+    private LevelWriteBehindBuffer levelBuffer;
+
+    @Autowired
+    private CharacterLeaderboard leaderboard;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    void setUp() {
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void awardLevels_AddsUpUntilFlushedInOneUpdate() {
+        Long id = createCharacter("leveluser", "Leveling");
+        // Cached, so the flush has to invalidate it.
+        characterRepository.findById(id);
+        String eTagBefore = accountService.getAccountViewETag("leveluser", null);
+
+        characterService.awardLevels(id, 2);
+        assertEquals(5, characterService.awardLevels(id, 3).getLevel());
+
+        assertEquals(0, jdbcTemplate.queryForObject("select level from character where id = ?", Integer.class, id));
+        assertEquals(5, characterService.listCharacters(null, null, null, null, null).getCharacters().get(0)
+                .getLevel());
+        assertEquals(5, accountService.getAccountView("leveluser", null).getCharacters().get(0).getLevel());
+        String eTagPending = accountService.getAccountViewETag("leveluser", null);
+        assertNotEquals(eTagBefore, eTagPending);
+
+        levelBuffer.flushAll();
+
+        assertEquals(0, levelBuffer.get(id, "leveluser"));
+        assertEquals(0, levelBuffer.pendingStamp("leveluser"));
+        assertEquals(5, jdbcTemplate.queryForObject("select level from character where id = ?", Integer.class, id));
+        assertEquals(1L, jdbcTemplate.queryForObject("select version from character where id = ?", Long.class, id));
+        assertEquals(5, characterRepository.findById(id).orElseThrow().getLevel());
+        assertEquals(5, accountService.getAccountView("leveluser", null).getCharacters().get(0).getLevel());
+        assertEquals(5, leaderboard.rank(id, null).orElseThrow().getLevel());
+        String eTagFlushed = accountService.getAccountViewETag("leveluser", null);
+        assertNotEquals(eTagBefore, eTagFlushed);
+        assertNotEquals(eTagPending, eTagFlushed);
+    }
+
+    @Test
+    void flushAll_KeepsUnrelatedQueriesCached() {
+        createCharacter("idleuser", "Idle");
+        Long id = createCharacter("flushinguser", "Flushing");
+        accountService.getAccountView("idleuser", Set.of());
+        characterService.awardLevels(id, 1);
+
+        levelBuffer.flushAll();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        accountService.getAccountView("idleuser", Set.of());
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void awardLevels_StopsAtLargestStorableLevel() {
+        Long id = createCharacter("maxleveluser", "Maxed");
+        jdbcTemplate.update("update character set level = ? where id = ?", Integer.MAX_VALUE - 2, id);
+        entityManagerFactory.getCache().evictAll();
+
+        assertEquals(Integer.MAX_VALUE, characterService.awardLevels(id, 5).getLevel());
+        assertEquals(Integer.MAX_VALUE, characterService.awardLevels(id, 1).getLevel());
+        assertEquals(2, levelBuffer.get(id, "maxleveluser"));
+
+        levelBuffer.flushAll();
+
+        assertEquals(Integer.MAX_VALUE,
+                jdbcTemplate.queryForObject("select level from character where id = ?", Integer.class, id));
+    }
+
+    @Test
+    void flushAll_WritesOtherCharactersWhenBatchFailsAndDropsLevelsAfterMaxAttempts() {
+        Long overflowing = createCharacter("overflowuser", "Overflowing");
+        Long healthy = createCharacter("healthyuser", "Healthy");
+        characterService.awardLevels(healthy, 2);
+        SecurityContextHolder.getContext()
+                .setAuthentication(new UsernamePasswordAuthenticationToken("overflowuser", null, new ArrayList<>()));
+        characterService.awardLevels(overflowing, 3);
+        // Written behind the buffer's back, so the pending levels no longer fit the column.
+        jdbcTemplate.update("update character set level = ? where id = ?", Integer.MAX_VALUE, overflowing);
+
+        levelBuffer.flushAll();
+
+        assertEquals(2, jdbcTemplate.queryForObject("select level from character where id = ?", Integer.class,
+                healthy));
+        assertEquals(0, levelBuffer.get(healthy, "healthyuser"));
+        assertEquals(3, levelBuffer.get(overflowing, "overflowuser"));
+
+        levelBuffer.flushAll();
+        levelBuffer.flushAll();
+
+        assertEquals(0, levelBuffer.get(overflowing, "overflowuser"));
+        assertEquals(0, levelBuffer.pendingStamp("overflowuser"));
+        assertEquals(Integer.MAX_VALUE, jdbcTemplate.queryForObject("select level from character where id = ?",
+                Integer.class, overflowing));
+    }
+
+    private Long createCharacter(String username, String name) {
+        Account account = new Account();
+        account.setUsername(username);
+        account.setPasswordHash("hash");
+        accountRepository.save(account);
+        SecurityContextHolder.getContext()
+                .setAuthentication(new UsernamePasswordAuthenticationToken(username, null, new ArrayList<>()));
+        Character character = new Character();
+        character.setName(name);
+        return characterService.createCharacter(character).getId();
+    }
+}
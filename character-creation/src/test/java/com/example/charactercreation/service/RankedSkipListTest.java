@@ -0,0 +1,64 @@
+package com.example.charactercreation.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import org.junit.jupiter.api.Test;
+
+class RankedSkipListTest {
+
+    private final RankedSkipList<Integer> list = new RankedSkipList<>(Comparator.reverseOrder());
+
+    @Test
+    void addAndRemove_IgnoreDuplicatesAndMissingElements() {
+        assertTrue(list.add(3));
+        assertFalse(list.add(3));
+        assertFalse(list.remove(4));
+
+        assertEquals(1, list.size());
+        assertTrue(list.remove(3));
+        assertEquals(0, list.size());
+        assertEquals(0, list.rank(3));
+    }
+
+    @Test
+    void rankAndRange_FollowTheComparator() {
+        List.of(5, 1, 9, 7).forEach(list::add);
+
+        assertEquals(1, list.rank(9));
+        assertEquals(4, list.rank(1));
+        assertEquals(0, list.rank(6));
+        assertEquals(List.of(9, 7), list.range(0, 2));
+        assertEquals(List.of(5, 1), list.range(2, 10));
+        assertEquals(List.of(), list.range(4, 1));
+    }
+
+    @Test
+    void randomOperations_MatchASortedSet() {
+        Random random = new Random(42);
+        TreeSet<Integer> expected = new TreeSet<>(Comparator.reverseOrder());
+        for (int i = 0; i < 20_000; i++) {
+            int value = random.nextInt(2_000);
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(value), list.remove(value));
+            } else {
+                assertEquals(expected.add(value), list.add(value));
+            }
+        }
+
+        List<Integer> sorted = new ArrayList<>(expected);
+        assertEquals(sorted.size(), list.size());
+        assertEquals(sorted, list.range(0, sorted.size()));
+        for (int i = 0; i < sorted.size(); i += 7) {
+            assertEquals(i + 1, list.rank(sorted.get(i)));
+            assertEquals(sorted.subList(i, Math.min(i + 5, sorted.size())), list.range(i, 5));
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.example.charactercreation.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import com.example.charactercreation.config.ReadWriteRoutingDataSource;
+import com.example.charactercreation.model.Character;
+
+/**
+ * Runs against two H2 databases that never replicate, so rows inserted on one side only show which pool a query
+ * was routed to.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1",
+        "datasource.replica.url=jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1" })
+class ReadWriteRoutingTest {
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private CharacterService characterService;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replicaDataSource;
+
+    @Autowired
+    private ReadWriteRoutingDataSource routingDataSource;
+
+    @Autowired
+    private UserDetailsServiceImpl userDetailsService;
+
+    @Autowired
+    private BCryptPasswordEncoder passwordEncoder;
+
+    private JdbcTemplate primary;
+    private JdbcTemplate replica;
+
+    @BeforeEach
+    void setUp() {
+        primary = new JdbcTemplate(primaryDataSource);
+        replica = new JdbcTemplate(replicaDataSource);
+        // Hibernate only generates the schema on the primary.
+        Integer tables = replica.queryForObject(
+                "select count(*) from information_schema.tables where table_name = 'ACCOUNT'", Integer.class);
+        if (tables == 0) {
+            primary.queryForList("SCRIPT NODATA", String.class).forEach(replica::execute);
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void readOnlyTransaction_ReadsFromReplica() {
+        insertAccount(replica, 1001, "replicaonly");
+
+        assertEquals(1001L, accountService.getAccountView("replicaonly", null).getId());
+    }
+
+    @Test
+    void writer_ReadsOwnWritesFromPrimaryWhileOthersUseReplica() {
+        insertAccount(primary, 1002, "writer");
+        insertAccount(replica, 1002, "writer");
+        insertAccount(primary, 1003, "reader");
+        insertAccount(replica, 1003, "reader");
+        replica.update("insert into character (id, name, name_key, level, version, account_id) "
+                + "values (1003, 'OnReplica', 'onreplica', 0, 0, 1003)");
+
+        authenticate("writer");
+        Character character = new Character();
+        character.setName("OnPrimary");
+        characterService.createCharacter(character);
+
+        assertEquals("OnPrimary", accountService.getAccountView("writer", null).getCharacters().get(0).getName());
+
+        authenticate("reader");
+        assertEquals("OnReplica", accountService.getAccountView("reader", null).getCharacters().get(0).getName());
+    }
+
+    @Test
+    void login_ReadsCredentialsFromPrimary() {
+        primary.update("insert into account (id, username, password_hash, character_count) values (1004, 'signedup', ?, 0)",
+                passwordEncoder.encode("password"));
+
+        assertNotNull(accountService.login("signedup", "password").getToken());
+    }
+
+    @Test
+    void loadUserByUsername_ReadsFromReplica() {
+        insertAccount(replica, 1006, "principal");
+
+        assertEquals("principal", userDetailsService.loadUserByUsername("principal").getUsername());
+    }
+
+    @Test
+    void loadUserByUsername_ReadsRecentWriterFromPrimary() {
+        insertAccount(primary, 1007, "freshprincipal");
+
+        assertThrows(UsernameNotFoundException.class, () -> userDetailsService.loadUserByUsername("freshprincipal"));
+        routingDataSource.markRecentWriter("freshprincipal");
+        assertEquals("freshprincipal", userDetailsService.loadUserByUsername("freshprincipal").getUsername());
+    }
+
+    @Test
+    void awardLevels_CapsAgainstPrimaryLevel() {
+        insertAccount(primary, 1008, "capped");
+        insertAccount(replica, 1008, "capped");
+        primary.update("insert into character (id, name, name_key, level, version, account_id) "
+                + "values (1008, 'NearCap', 'nearcap', ?, 0, 1008)", Integer.MAX_VALUE - 1);
+        replica.update("insert into character (id, name, name_key, level, version, account_id) "
+                + "values (1008, 'NearCap', 'nearcap', 0, 0, 1008)");
+
+        authenticate("capped");
+        assertEquals(Integer.MAX_VALUE, characterService.awardLevels(1008L, 5).getLevel());
+    }
+
+    @Test
+    void createAccount_KeepsNewUserOnPrimary() {
+        accountService.createAccount("newuser", "password");
+
+        authenticate("newuser");
+        assertEquals("newuser", accountService.getAccountView("newuser", null).getUsername());
+    }
+
+    @Test
+    void replicaReads_DoNotFillQueryCache() {
+        insertAccount(primary, 1005, "lagging");
+        insertAccount(replica, 1005, "lagging");
+        primary.update("insert into character (id, name, name_key, level, version, account_id) "
+                + "values (1005, 'Fresh', 'fresh', 0, 0, 1005)");
+
+        authenticate("lagging");
+        assertEquals(List.of(), accountService.getAccountView("lagging", null).getCharacters());
+
+        routingDataSource.markRecentWriter("lagging");
+        assertEquals("Fresh", accountService.getAccountView("lagging", null).getCharacters().get(0).getName());
+    }
+
+    private static void insertAccount(JdbcTemplate jdbcTemplate, long id, String username) {
+        jdbcTemplate.update("insert into account (id, username, password_hash, character_count) values (?, ?, 'hash', 0)",
+                id, username);
+    }
+
+    private static void authenticate(String username) {
+        SecurityContextHolder.getContext()
+                .setAuthentication(new UsernamePasswordAuthenticationToken(username, null, new ArrayList<>()));
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.charactercreation.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.charactercreation.model.RefreshToken;
+import com.example.charactercreation.repository.RefreshTokenRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class RefreshTokenServiceTest {
+
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private RefreshTokenService refreshTokenService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(refreshTokenService, "refreshTokenTtl", Duration.ofDays(14));
+    }
+
+    @Test
+    void issue_StoresOnlyTheDigest() {
+        String token = refreshTokenService.issue("testuser");
+
+        ArgumentCaptor<RefreshToken> saved = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokenRepository).save(saved.capture());
+        assertEquals("testuser", saved.getValue().getUsername());
+        assertNotEquals(token, saved.getValue().getTokenHash());
+        assertEquals(false, saved.getValue().isRevoked());
+    }
+
+    @Test
+    void redeem_ReturnsUsernameOfLiveToken() {
+        RefreshToken stored = storedToken(false);
+        when(refreshTokenRepository.findByTokenHash(anyString())).thenReturn(Optional.of(stored));
+        when(refreshTokenRepository.redeem(eq(1L), any(Instant.class))).thenReturn(1);
+
+        assertEquals("testuser", refreshTokenService.redeem("token"));
+        verify(refreshTokenRepository, never()).revokeAllByUsername(anyString());
+    }
+
+    @Test
+    void redeem_ReusedTokenRevokesAllTokensOfUser() {
+        RefreshToken stored = storedToken(true);
+        when(refreshTokenRepository.findByTokenHash(anyString())).thenReturn(Optional.of(stored));
+        when(refreshTokenRepository.redeem(eq(1L), any(Instant.class))).thenReturn(0);
+
+        assertThrows(IllegalArgumentException.class, () -> refreshTokenService.redeem("token"));
+        verify(refreshTokenRepository).revokeAllByUsername("testuser");
+        assertEquals(1, meterRegistry.counter("auth.refresh", "result", "reused").count());
+    }
+
+    @Test
+    void redeem_UnknownToken() {
+        when(refreshTokenRepository.findByTokenHash(anyString())).thenReturn(Optional.empty());
+
+        assertThrows(IllegalArgumentException.class, () -> refreshTokenService.redeem("token"));
+        verify(refreshTokenRepository, never()).redeem(any(), any());
+    }
+
+    private static RefreshToken storedToken(boolean revoked) {
+        RefreshToken refreshToken = new RefreshToken();
+        refreshToken.setId(1L);
+        refreshToken.setUsername("testuser");
+        refreshToken.setExpiresAt(Instant.now().plus(Duration.ofDays(1)));
+        refreshToken.setRevoked(revoked);
+        return refreshToken;
+    }
+}
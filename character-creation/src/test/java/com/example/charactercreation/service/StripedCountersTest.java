@@ -0,0 +1,83 @@
+package com.example.charactercreation.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+
+class StripedCountersTest {
+
+    private final StripedCounters<String> counters = new StripedCounters<>();
+
+    @Test
+    void drain_TakesCountsAndDropsIdleKeys() {
+        counters.add("a", 2);
+        counters.add("a", 3);
+        counters.add("b", 1);
+
+        assertEquals(Map.of("a", 5L, "b", 1L), counters.drain());
+        assertEquals(0, counters.get("a"));
+        assertEquals(2, counters.size());
+
+        counters.add("b", 4);
+
+        assertEquals(Map.of("b", 4L), counters.drain());
+        assertEquals(1, counters.size());
+    }
+
+    @Test
+    void removeZeros_KeepsKeysWithACount() {
+        counters.add("a", 2);
+        counters.add("b", 1);
+        counters.add("a", -2);
+
+        counters.removeZeros();
+
+        assertEquals(1, counters.size());
+        assertEquals(1, counters.get("b"));
+    }
+
+    @Test
+    void drain_TakesEveryAdditionExactlyOnceUnderConcurrentAdds() throws InterruptedException {
+        int threads = 4;
+        int addsPerThread = 200_000;
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> adders = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Thread adder = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < addsPerThread; i++) {
+                    counters.add("key" + (i % 3), 1);
+                }
+            });
+            adder.start();
+            adders.add(adder);
+        }
+        AtomicBoolean done = new AtomicBoolean();
+        long[] drained = new long[1];
+        Thread drainer = new Thread(() -> {
+            while (!done.get()) {
+                counters.drain().values().forEach(count -> drained[0] += count);
+            }
+        });
+        drainer.start();
+        start.countDown();
+        for (Thread adder : adders) {
+            adder.join();
+        }
+        done.set(true);
+        drainer.join();
+        counters.drain().values().forEach(count -> drained[0] += count);
+
+        assertEquals((long) threads * addsPerThread, drained[0]);
+    }
+}